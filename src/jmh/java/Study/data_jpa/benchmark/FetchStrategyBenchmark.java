@@ -0,0 +1,68 @@
+package Study.data_jpa.benchmark;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.repository.MemberJpaRepository;
+import Study.data_jpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 전체 + 팀 이름까지 읽는 방법별 비교
+ * -fetchJoin : @Query left join fetch
+ * -entityGraph : @Query + @EntityGraph
+ * -findAllEntityGraph : findAll() 오버라이드 + @EntityGraph
+ * -lazyBatch : 회원만 읽고 team 지연 로딩 (@BatchSize / default_batch_fetch_size 100 으로 묶어서)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FetchStrategyBenchmark {
+
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+
+    @Setup
+    public void setUp(JpaBenchmarkState state) {
+        memberRepository = state.bean(MemberRepository.class);
+        memberJpaRepository = state.bean(MemberJpaRepository.class);
+    }
+
+    @Benchmark
+    public void fetchJoin(JpaBenchmarkState state, Blackhole bh) {
+        state.readOnly(() -> consume(memberRepository.findMemberFetchJoin(), bh));
+    }
+
+    @Benchmark
+    public void entityGraph(JpaBenchmarkState state, Blackhole bh) {
+        state.readOnly(() -> consume(memberRepository.findMemberEntityGraph(), bh));
+    }
+
+    @Benchmark
+    public void findAllEntityGraph(JpaBenchmarkState state, Blackhole bh) {
+        state.readOnly(() -> consume(memberRepository.findAll(), bh));
+    }
+
+    @Benchmark
+    public void lazyBatch(JpaBenchmarkState state, Blackhole bh) {
+        state.readOnly(() -> consume(memberJpaRepository.findAll(), bh)); // select m from Member m (team 은 프록시)
+    }
+
+    // 팀 이름까지 건드려야 지연 로딩이 실제로 나감
+    private static Void consume(List<Member> members, Blackhole bh) {
+        for (Member member : members) {
+            bh.consume(member.getUsername());
+            bh.consume(member.getTeam() != null ? member.getTeam().getName() : null);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,87 @@
+package Study.data_jpa.benchmark;
+
+import Study.data_jpa.entity.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 랜덤 UUID vs 시간 순서 id(ULID, TimeOrderedIdGenerator) 를 PK 로 insert
+ * 벤치마크 한 번 = 1000 건 batch insert (점수 x 1000 = rows/s), 반복(iteration)마다 빈 테이블에서 다시 시작
+ * 랜덤 id 는 PK 인덱스 중간중간에 끼어들어서 페이지 분할이 잦고 인덱스도 커짐 -> 끝나면 행당 바이트(DISK_SPACE_USED)를 출력
+ * 스프링 없이 메모리 H2 + JDBC 만 (JPA 비용 빼고 id 모양 차이만)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IdInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"uuid", "ulid"})
+    public String idType;
+
+    Connection connection;
+    PreparedStatement insert;
+    Supplier<String> ids;
+    long rows;
+
+    @Setup(Level.Trial)
+    public void connect() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:id_insert_" + idType, "sa", "");
+        ids = "uuid".equals(idType) ? () -> UUID.randomUUID().toString() : TimeOrderedIdGenerator::nextId;
+    }
+
+    @Setup(Level.Iteration)
+    public void createTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists item_bench");
+            statement.execute("create table item_bench (id varchar(36) primary key, created_date timestamp)");
+        }
+        insert = connection.prepareStatement("insert into item_bench (id, created_date) values (?, current_timestamp)");
+        rows = 0;
+    }
+
+    @Benchmark
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setString(1, ids.get());
+            insert.addBatch();
+        }
+        rows += BATCH_SIZE;
+        return insert.executeBatch();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportSize() throws SQLException {
+        insert.close();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select disk_space_used('ITEM_BENCH')")) {
+            resultSet.next();
+            System.out.printf("%n%s: %d rows, %d bytes/row (table + PK index)%n", idType, rows, resultSet.getLong(1) / Math.max(rows, 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+}
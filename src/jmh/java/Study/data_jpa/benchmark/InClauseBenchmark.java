@@ -0,0 +1,59 @@
+package Study.data_jpa.benchmark;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * username 을 names 개 넘겨서 회원 조회 (있는 이름 10개 + 나머지는 없는 이름)
+ * -findByNames : MemberRepositoryImpl (in 절 패딩, 많으면 username = any(배열))
+ * -jpqlInClause : 예전 @Query 그대로 (in 절에 names 개 바인딩)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InClauseBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int names;
+
+    MemberRepository memberRepository;
+    EntityManager em;
+    List<String> usernames;
+
+    @Setup
+    public void setUp(JpaBenchmarkState state) {
+        memberRepository = state.bean(MemberRepository.class);
+        em = state.bean(EntityManager.class);
+
+        usernames = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            usernames.add(i < 10 ? "member" + i : "none" + i);
+        }
+    }
+
+    @Benchmark
+    public Object findByNames(JpaBenchmarkState state) {
+        return state.readOnly(() -> memberRepository.findByNames(usernames));
+    }
+
+    @Benchmark
+    public Object jpqlInClause(JpaBenchmarkState state) {
+        return state.readOnly(() -> em.createQuery("select m from Member m where m.username in :names", Member.class)
+                .setParameter("names", usernames)
+                .getResultList());
+    }
+
+}
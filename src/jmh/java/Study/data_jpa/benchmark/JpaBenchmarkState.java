@@ -0,0 +1,105 @@
+package Study.data_jpa.benchmark;
+
+import Study.data_jpa.DataJpaApplication;
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.entity.Team;
+import Study.data_jpa.repository.MemberJpaRepository;
+import Study.data_jpa.repository.TeamJpaRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 벤치마크 공용 상태
+ * 웹 없이 JPA 계층만 띄우고 (메모리 H2), members 명 만큼 회원을 넣어둠. (팀 하나에 회원 10명, 같은 username 은 members / 100 명)
+ * 2차 캐시, 쿼리 캐시, SQL 로그는 꺼서 DB 까지 가는 비용만 비교.
+ * 벤치마크 한 번 = 새 읽기 전용 트랜잭션 하나 (영속성 컨텍스트도 매번 새로)
+ */
+@State(Scope.Benchmark)
+public class JpaBenchmarkState {
+
+    static final int USERNAMES = 100;
+
+    @Param({"100", "10000"})
+    public int members;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate readOnlyTx;
+    List<Long> memberIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "decorator.datasource.enabled=false",
+                        "logging.level.root=warn")
+                .run();
+
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+
+        seed();
+    }
+
+    private void seed() {
+        List<Team> teams = new ArrayList<>();
+        List<Member> newMembers = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            if (i % 10 == 0) {
+                teams.add(new Team("team" + teams.size()));
+            }
+            newMembers.add(new Member(username(i), i % 100, teams.get(teams.size() - 1)));
+        }
+        context.getBean(TeamJpaRepository.class).bulkInsert(teams);
+        context.getBean(MemberJpaRepository.class).bulkInsert(newMembers);
+        memberIds = newMembers.stream().map(Member::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    <T> T readOnly(Supplier<T> action) {
+        return readOnlyTx.execute(status -> action.get());
+    }
+
+    Long randomId() {
+        return memberIds.get(ThreadLocalRandom.current().nextInt(memberIds.size()));
+    }
+
+    int randomAge() {
+        return ThreadLocalRandom.current().nextInt(100);
+    }
+
+    String randomUsername() {
+        return username(ThreadLocalRandom.current().nextInt(USERNAMES));
+    }
+
+    private static String username(int i) {
+        return "member" + (i % USERNAMES);
+    }
+
+}
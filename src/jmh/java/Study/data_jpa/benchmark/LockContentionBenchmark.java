@@ -0,0 +1,87 @@
+package Study.data_jpa.benchmark;
+
+import Study.data_jpa.service.MemberService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 회원을 동시에 수정할 때 비관적 락 vs 낙관적 락 + 재시도 처리량
+ * 8 스레드가 hotUsernames 개 username 중 하나를 골라 age + 1
+ * -hotUsernames 1 : 전부 같은 row 로 (충돌 최대)
+ * -hotUsernames 100 : 흩어짐 (충돌 거의 없음)
+ * username 하나당 회원 수 = members / 100 (-p members=100 이면 한 명)
+ * failed : 락 대기 시간 초과, 재시도를 다 써도 충돌한 호출 수
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class LockContentionBenchmark {
+
+    private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(3);
+
+    @Param({"1", "10", "100"})
+    public int hotUsernames;
+
+    MemberService memberService;
+
+    @Setup
+    public void setUp(JpaBenchmarkState state) {
+        memberService = state.bean(MemberService.class);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long succeeded;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            failed = 0;
+        }
+    }
+
+    @Benchmark
+    public void optimistic(Outcomes outcomes) {
+        String username = hotUsername();
+        try {
+            memberService.increaseAge(username);
+            outcomes.succeeded++;
+        } catch (ConcurrencyFailureException e) {
+            outcomes.failed++;
+        }
+    }
+
+    @Benchmark
+    public void pessimistic(Outcomes outcomes) {
+        String username = hotUsername();
+        try {
+            memberService.increaseAgeWithLock(username, LOCK_TIMEOUT);
+            outcomes.succeeded++;
+        } catch (ConcurrencyFailureException e) {
+            outcomes.failed++;
+        }
+    }
+
+    private String hotUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(hotUsernames);
+    }
+
+}
@@ -0,0 +1,102 @@
+package Study.data_jpa.benchmark;
+
+import Study.data_jpa.repository.MemberRepository;
+import Study.data_jpa.repository.MemberSummaryRecord;
+import Study.data_jpa.repository.NestedClosedProjections;
+import Study.data_jpa.repository.UsernameAgeRecord;
+import Study.data_jpa.repository.UsernameOnly;
+import Study.data_jpa.repository.UsernameOnlyDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 username 회원들(members / 100 명)을 무엇으로 받느냐
+ * -entity : 엔티티 그대로
+ * -interfaceProjection : UsernameOnly (Open Projection 이라 엔티티를 다 읽고 SpEL 계산)
+ * -dtoProjection : UsernameOnlyDto (username 만 select)
+ * -nestedProjection : NestedClosedProjections (team 은 엔티티로 다 읽음)
+ * -dtoConstructor : select new MemberDto(...) 전체 회원 (팀 조인) -> 다른 것들과 row 수가 달라서 단독으로 참고
+ * -recordProjection : UsernameAgeRecord (username, age 만 select, interfaceProjection 과 같은 값)
+ * -nestedRecordProjection : MemberSummaryRecord (팀은 이름만 left join, nestedProjection 과 비교)
+ * 할당량 비교는 -prof gc 로 (gc.alloc.rate.norm = 호출 한 번에 할당한 바이트)
+ *  예) ./gradlew jmh -Pjmh.includes=ProjectionBenchmark 는 build.gradle 의 profilers 설정으로 gc 까지 같이 나옴
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionBenchmark {
+
+    MemberRepository memberRepository;
+
+    @Setup
+    public void setUp(JpaBenchmarkState state) {
+        memberRepository = state.bean(MemberRepository.class);
+    }
+
+    @Benchmark
+    public Object entity(JpaBenchmarkState state) {
+        String username = state.randomUsername();
+        return state.readOnly(() -> memberRepository.findByUsername(username));
+    }
+
+    @Benchmark
+    public Object interfaceProjection(JpaBenchmarkState state) {
+        String username = state.randomUsername();
+        return state.readOnly(() -> consume(memberRepository.findProjectionsByUsername(username, UsernameOnly.class)));
+    }
+
+    @Benchmark
+    public Object dtoProjection(JpaBenchmarkState state) {
+        String username = state.randomUsername();
+        return state.readOnly(() -> memberRepository.findProjectionsByUsername(username, UsernameOnlyDto.class));
+    }
+
+    @Benchmark
+    public Object nestedProjection(JpaBenchmarkState state) {
+        String username = state.randomUsername();
+        return state.readOnly(() -> consume(memberRepository.findProjectionsByUsername(username, NestedClosedProjections.class)));
+    }
+
+    @Benchmark
+    public Object recordProjection(JpaBenchmarkState state) {
+        String username = state.randomUsername();
+        return state.readOnly(() -> consume(memberRepository.findRecordsByUsername(username, UsernameAgeRecord.class)));
+    }
+
+    @Benchmark
+    public Object nestedRecordProjection(JpaBenchmarkState state) {
+        String username = state.randomUsername();
+        return state.readOnly(() -> consume(memberRepository.findRecordsByUsername(username, MemberSummaryRecord.class)));
+    }
+
+    @Benchmark
+    public Object dtoConstructor(JpaBenchmarkState state) {
+        return state.readOnly(() -> memberRepository.findMemberDto());
+    }
+
+    // 인터페이스 프로젝션은 getter 를 부를 때 값을 계산하는 프록시라서 한 번씩 호출 (레코드도 같은 조건으로)
+    private static int consume(List<?> projections) {
+        int hash = 0;
+        for (Object projection : projections) {
+            if (projection instanceof UsernameOnly usernameOnly) {
+                hash += usernameOnly.getUsername().hashCode();
+            } else if (projection instanceof NestedClosedProjections nested) {
+                hash += nested.getUsername().hashCode() + nested.getTeam().getName().hashCode();
+            } else if (projection instanceof UsernameAgeRecord usernameAge) {
+                hash += usernameAge.display().hashCode();
+            } else if (projection instanceof MemberSummaryRecord summary) {
+                hash += summary.username().hashCode() + summary.teamName().hashCode();
+            }
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,87 @@
+package Study.data_jpa.benchmark;
+
+import Study.data_jpa.repository.MemberJpaRepository;
+import Study.data_jpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스프링 데이터 JPA 프록시 vs 순수 JPA 로 직접 짠 리포지토리 (MemberJpaRepository)
+ * 같은 JPQL 이 나가는 메서드끼리 비교해서, 프록시 + 쿼리 메서드 처리에 드는 비용만 보기
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryProxyBenchmark {
+
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+
+    @Setup
+    public void setUp(JpaBenchmarkState state) {
+        memberRepository = state.bean(MemberRepository.class);
+        memberJpaRepository = state.bean(MemberJpaRepository.class);
+    }
+
+    @Benchmark
+    public Object springDataFindById(JpaBenchmarkState state) {
+        Long id = state.randomId();
+        return state.readOnly(() -> memberRepository.findById(id));
+    }
+
+    @Benchmark
+    public Object jpaFindById(JpaBenchmarkState state) {
+        Long id = state.randomId();
+        return state.readOnly(() -> memberJpaRepository.findById(id));
+    }
+
+    // MemberJpaRepository.findByUsername 은 Member 의 @NamedQuery 가 주석이라 비교에서 뺌
+    // 페이징: Page (select + count) vs findByPage + totalCount 직접
+    @Benchmark
+    public Object springDataFindByAgePage(JpaBenchmarkState state) {
+        int age = state.randomAge();
+        return state.readOnly(() -> memberRepository.findByAge(age, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "username"))));
+    }
+
+    @Benchmark
+    public Object jpaFindByPage(JpaBenchmarkState state, Blackhole bh) {
+        int age = state.randomAge();
+        return state.readOnly(() -> {
+            bh.consume(memberJpaRepository.totalCount(age));
+            return memberJpaRepository.findByPage(age, 0, 10);
+        });
+    }
+
+    @Benchmark
+    public Object springDataFindByUsernameAndAgeGreaterThan(JpaBenchmarkState state) {
+        String username = state.randomUsername();
+        return state.readOnly(() -> memberRepository.findByUsernameAndAgeGreaterThan(username, 50));
+    }
+
+    @Benchmark
+    public Object jpaFindByUsernameAndAgeGreaterThan(JpaBenchmarkState state) {
+        String username = state.randomUsername();
+        return state.readOnly(() -> memberJpaRepository.findByUsernameAndAgeGreaterThan(username, 50));
+    }
+
+    @Benchmark
+    public long springDataCount(JpaBenchmarkState state) {
+        return state.readOnly(() -> memberRepository.count());
+    }
+
+    @Benchmark
+    public long jpaCount(JpaBenchmarkState state) {
+        return state.readOnly(() -> memberJpaRepository.count());
+    }
+
+}
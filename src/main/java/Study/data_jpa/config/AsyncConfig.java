@@ -0,0 +1,69 @@
+package Study.data_jpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 비동기 리포지토리 메서드 (@Async("repositoryExecutor")) 전용 스레드 풀 + 벌크 update 용 스레드 풀
+ * 쿼리 하나가 커넥션 하나를 쓰니까 스레드 수 = 커넥션 풀 크기, 대기 큐도 제한 (넘치면 TaskRejectedException)
+ * 무제한으로 받으면 커넥션 기다리는 작업만 계속 쌓임.
+ *
+ * Executor 빈을 하나라도 만들면 스프링 부트의 applicationTaskExecutor 자동 설정이 꺼짐 (@ConditionalOnMissingBean(Executor.class))
+ *  -> MVC 비동기 처리(Callable, DeferredResult), 이름 없는 @Async 가 SimpleAsyncTaskExecutor(요청마다 새 스레드)로 떨어지고
+ *     spring.threads.virtual.enabled 도 안 먹음. 그래서 자동 설정과 같은 빈을 직접 등록 (spring.task.execution.* 설정 그대로 적용)
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // 가상 스레드 (virtual 프로필, Java 21 이상)
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor repositoryExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${repository.async.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("repository-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    // 나눠서 돌리는 벌크 update (ChunkedBulkUpdateExecutor), 범위 수는 ChunkedBulkUpdateExecutor 가 parallelism 개로 제한
+    @Bean
+    public ThreadPoolTaskExecutor bulkUpdateExecutor(@Value("${bulk-update.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism);
+        executor.setThreadNamePrefix("bulk-update-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+}
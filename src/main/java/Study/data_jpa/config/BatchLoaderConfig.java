@@ -0,0 +1,72 @@
+package Study.data_jpa.config;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.entity.Team;
+import Study.data_jpa.repository.BatchLoader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * id 조회 묶음 처리 (BatchLoader)
+ * batch-loader.window 동안 들어온 findById 를 한 번에 (where id in (...))
+ * max-batch-size 는 default_batch_fetch_size 와 맞춤
+ *
+ * 로더는 리더 요청 스레드에서 돌지만 결과는 다른 요청 스레드들로 넘어감.
+ * -요청의 영속성 컨텍스트(OSIV)에 붙으면 안 돼서 배치마다 emf.createEntityManager() 로 따로 열고 finally 에서 닫음 -> 준영속
+ *  (트랜잭션이 없을 때 JpaTransactionManager 는 REQUIRES_NEW 라도 OSIV 로 묶인 EntityManager 를 그대로 씀)
+ * -읽기만 하니까 트랜잭션 없이 읽기 전용 세션으로 (스냅샷 안 만듦)
+ * -findAllById 의 in 쿼리는 2차 캐시를 안 봄 -> Session.byMultipleIds().multiLoad() 로 2차 캐시에 있는 건 캐시에서, 나머지만 in 쿼리
+ * -준영속이라 지연 로딩이 안 됨 -> 화면에서 쓰는 연관관계(member.team)는 닫기 전에 초기화 (Team 도 2차 캐시)
+ */
+@Configuration
+public class BatchLoaderConfig {
+
+    @Bean
+    public BatchLoader<Long, Member> memberLoader(EntityManagerFactory emf,
+                                                  @Value("${batch-loader.window:2ms}") Duration window,
+                                                  @Value("${batch-loader.max-batch-size:100}") int maxBatchSize) {
+        return new BatchLoader<>(multiLoader(Member.class, emf, member -> Hibernate.initialize(member.getTeam())),
+                Member::getId, window, maxBatchSize);
+    }
+
+    @Bean
+    public BatchLoader<Long, Team> teamLoader(EntityManagerFactory emf,
+                                              @Value("${batch-loader.window:2ms}") Duration window,
+                                              @Value("${batch-loader.max-batch-size:100}") int maxBatchSize) {
+        return new BatchLoader<>(multiLoader(Team.class, emf, team -> {
+        }), Team::getId, window, maxBatchSize);
+    }
+
+    private static <T> Function<Collection<Long>, List<T>> multiLoader(Class<T> type, EntityManagerFactory emf,
+                                                                      Consumer<T> initializer) {
+        return ids -> {
+            EntityManager em = emf.createEntityManager();
+            try {
+                Session session = em.unwrap(Session.class);
+                session.setDefaultReadOnly(true);
+                List<T> loaded = session.byMultipleIds(type)
+                        .multiLoad(List.copyOf(ids))
+                        .stream()
+                        .filter(Objects::nonNull) // 없는 id 자리는 null
+                        .toList();
+                loaded.forEach(initializer);
+                return loaded;
+            } finally {
+                em.close(); // 여기서 전부 준영속
+            }
+        };
+    }
+
+}
@@ -0,0 +1,24 @@
+package Study.data_jpa.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 캐시 설정
+ * 스프링 캐시(JCacheCacheManager)와 하이버네이트 2차 캐시가 ehcache.xml 로 만든 CacheManager 하나를 같이 씀.
+ * (따로 만들면 같은 설정 파일로 CacheManager 가 두 개 뜸)
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCacheCustomizer(JCacheCacheManager cacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager.getCacheManager());
+    }
+
+}
@@ -0,0 +1,39 @@
+package Study.data_jpa.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 동시 요청 제한 (virtual 프로필에서 켬, concurrency.limit.enabled)
+ * 허가 개수 = spring.datasource.hikari.maximum-pool-size (기본 10), 요청 하나가 커넥션 하나를 쓴다고 보고 맞춤
+ * /actuator 는 DB 를 안 쓰고, 막히면 상태 확인도 안 되니까 제외
+ */
+@Configuration
+@ConditionalOnProperty(name = "concurrency.limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<JdbcConcurrencyLimitFilter> jdbcConcurrencyLimitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${concurrency.limit.acquire-timeout:1s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        JdbcConcurrencyLimitFilter filter = new JdbcConcurrencyLimitFilter(poolSize, acquireTimeout);
+
+        Gauge.builder("http.concurrency.limit.available", filter, JdbcConcurrencyLimitFilter::availablePermits)
+                .register(meterRegistry);
+        Gauge.builder("http.concurrency.limit.waiting", filter, JdbcConcurrencyLimitFilter::queueLength)
+                .register(meterRegistry);
+
+        FilterRegistrationBean<JdbcConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/members", "/members/*", "/members2/*", "/cache/*");
+        return registration;
+    }
+
+}
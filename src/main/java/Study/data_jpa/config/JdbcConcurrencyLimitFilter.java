@@ -0,0 +1,68 @@
+package Study.data_jpa.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션 풀 크기만큼만 요청을 동시에 들여보내는 필터
+ * 가상 스레드는 요청마다 스레드가 생겨서 톰캣 스레드 풀이 더 이상 동시 요청 수를 막아주지 않음.
+ * 그대로 두면 수천 개 요청이 Hikari 커넥션을 기다리며 쌓이고 (connection-timeout 30초), 그동안 영속성 컨텍스트, 요청 객체가 메모리에 다 남음.
+ * 여기서 풀 크기만큼 허가를 주고, acquireTimeout 안에 못 받으면 바로 503 (Retry-After) -> 앞단에서 재시도/분산
+ */
+public class JdbcConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public JdbcConcurrencyLimitFilter(int maxConcurrency, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrency, true); // 먼저 온 요청 먼저 (기다린 순서대로)
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "too many concurrent requests");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 스트리밍 응답(/members/export)은 비동기 디스패치를 안 쓰니까 한 번만 걸면 됨
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+
+}
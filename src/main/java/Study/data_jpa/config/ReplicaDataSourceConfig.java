@@ -0,0 +1,66 @@
+package Study.data_jpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기/쓰기 분리 (replica 프로필)
+ * -Dspring.profiles.active=replica
+ * DataSource 빈을 직접 만들면 스프링 부트 기본 DataSource 는 안 만들어짐.
+ * 원본, 복제본마다 Hikari 풀이 따로 (풀 크기는 spring.datasource.hikari.maximum-pool-size 를 똑같이 씀)
+ */
+@Configuration
+@Profile("replica")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>(); // LazyConnectionDataSourceProxy 는 close 가 없어서 여기서 닫음
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties primaryProperties, ReplicaDataSourceProperties replicaProperties,
+                                 Environment environment) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        primary.setMaximumPoolSize(poolSize);
+        pools.add(primary);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaDataSourceProperties.Replica replica : replicaProperties.replicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(replica.username());
+            dataSource.setPassword(replica.password());
+            dataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setReadOnly(true); // 실수로 복제본에 쓰면 바로 에러
+            replicas.add(dataSource);
+            pools.add(dataSource);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas,
+                new ReplicaLagGuard(replicaProperties.replicaLag()));
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+}
@@ -0,0 +1,23 @@
+package Study.data_jpa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * app.datasource (replica 프로필)
+ * 원본은 그대로 spring.datasource, 복제본만 여기에
+ */
+@ConfigurationProperties("app.datasource")
+public record ReplicaDataSourceProperties(List<Replica> replicas, Duration replicaLag) {
+
+    public ReplicaDataSourceProperties {
+        replicas = replicas == null ? List.of() : replicas;
+        replicaLag = replicaLag == null ? Duration.ofSeconds(1) : replicaLag;
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+
+}
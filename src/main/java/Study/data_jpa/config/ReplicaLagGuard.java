@@ -0,0 +1,69 @@
+package Study.data_jpa.config;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * 복제 지연 대비 (read-your-writes)
+ * 복제본은 원본보다 조금 늦게 따라와서, 방금 저장하고 바로 읽기 전용 트랜잭션으로 읽으면 복제본에 아직 없을 수 있음.
+ * 쓰기 트랜잭션이 커밋되면 시각을 남겨두고, 그 뒤 replicaLag 동안은 같은 세션의 읽기도 원본으로 보냄.
+ * -HTTP 세션이 있으면 세션에 (다음 요청에도 적용)
+ * -없으면 스레드에 (같은 스레드에서 저장 -> 조회, 배치 작업 등)
+ */
+public class ReplicaLagGuard {
+
+    static final String LAST_WRITE_ATTRIBUTE = ReplicaLagGuard.class.getName() + ".LAST_WRITE";
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private final long replicaLagNanos;
+
+    public ReplicaLagGuard(Duration replicaLag) {
+        this.replicaLagNanos = replicaLag.toNanos();
+    }
+
+    public void markWrite() {
+        if (replicaLagNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        HttpSession session = currentSession();
+        if (session != null) {
+            session.setAttribute(LAST_WRITE_ATTRIBUTE, now);
+        } else {
+            LAST_WRITE.set(now);
+        }
+    }
+
+    public boolean mustReadPrimary() {
+        if (replicaLagNanos <= 0) {
+            return false;
+        }
+        HttpSession session = currentSession();
+        Long lastWrite = session != null ? (Long) session.getAttribute(LAST_WRITE_ATTRIBUTE) : LAST_WRITE.get();
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < replicaLagNanos) {
+            return true;
+        }
+        if (session == null) {
+            LAST_WRITE.remove(); // 지난 건 정리
+        }
+        return false;
+    }
+
+    // 세션은 새로 만들지 않음 (세션 없는 API 요청은 스레드 기준)
+    private static HttpSession currentSession() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getSession(false);
+        }
+        return null;
+    }
+
+}
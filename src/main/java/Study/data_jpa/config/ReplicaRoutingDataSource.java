@@ -0,0 +1,76 @@
+package Study.data_jpa.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 복제본으로, 나머지는 원본으로
+ * 복제본이 여러 개면 돌아가면서 (round robin) -> 복제본을 늘리면 읽기 처리량도 늘어남
+ * 주의: 트랜잭션 매니저가 readOnly 를 표시하기 전에 커넥션을 먼저 가져가서, 꼭 LazyConnectionDataSourceProxy 로 감싸서 써야 함
+ * (실제 커넥션은 첫 SQL 을 날릴 때 가져옴 -> 그때는 readOnly 여부를 알 수 있음)
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica-";
+
+    // 쓰기 트랜잭션마다 커밋 후 표시를 한 번만 등록하려고
+    private static final Object WRITE_MARKER = new Object();
+
+    private final int replicaCount;
+    private final ReplicaLagGuard lagGuard;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaLagGuard lagGuard) {
+        this.replicaCount = replicas.size();
+        this.lagGuard = lagGuard;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA + i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (replicaCount == 0 || lagGuard.mustReadPrimary()) {
+                return PRIMARY;
+            }
+            return REPLICA + Math.floorMod(next.getAndIncrement(), replicaCount);
+        }
+        markWriteAfterCommit();
+        return PRIMARY;
+    }
+
+    private void markWriteAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lagGuard.markWrite();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER);
+            }
+        });
+    }
+
+}
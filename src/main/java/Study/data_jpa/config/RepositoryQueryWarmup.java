@@ -0,0 +1,258 @@
+package Study.data_jpa.config;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.BaseStream;
+
+/**
+ * 기동 직후 쿼리 워밍업 (app.warmup.enabled: true 일 때만)
+ * 쿼리 메서드는 처음 호출될 때 JPQL 파싱 -> SQL 변환(하이버네이트 쿼리 플랜 캐시) -> PreparedStatement 준비를 함.
+ * 배포 직후 첫 요청들이 이 비용을 다 떠안아서 p99 가 튐 -> 트래픽 받기 전에 미리 준비.
+ *
+ * -ApplicationRunner 는 readiness 가 ACCEPTING_TRAFFIC 으로 바뀌기 전에 돌아서, 끝나야 로드밸런서에 붙음
+ * -@Query(JPQL) 메서드는 실행하지 않고 em.createQuery 로 컴파일만 (countQuery 도) -> findMemberDto 처럼 조건 없는 쿼리도 테이블을 안 읽음
+ * -파생 쿼리는 JPQL 문자열이 없어서 기본값 인자("", 0, 첫 페이지 1건)로 읽기 전용 + 롤백 트랜잭션 안에서 호출
+ *  (where 조건이 없는 파라미터 없는 파생 쿼리는 테이블 전체를 읽으니까 건너뜀)
+ * -@Modifying, @Lock, @Async, delete/remove, Stream 반환, 네이티브 쿼리는 건너뜀 (쓰기, 락, 다른 스레드, 커서, 하이버네이트가 컴파일할 게 없음)
+ * -parallelism 개 스레드로 동시에, 전체 timeout 을 넘기면 남은 건 버리고 기동 계속
+ * -app.warmup.named-queries 에 적힌 Named 쿼리가 등록돼 있는지도 확인 (없으면 WARN, 호출할 때 가서야 터지니까)
+ * 쿼리마다 걸린 시간(컴파일, 파생 쿼리는 + 준비 + 실행)을 느린 순서로 로그에 남김
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class RepositoryQueryWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryQueryWarmup.class);
+
+    private final ListableBeanFactory beanFactory;
+    private final EntityManager em;
+    private final TransactionTemplate warmupTx;
+    private final int parallelism;
+    private final Duration timeout;
+    private final List<String> namedQueries;
+
+    public RepositoryQueryWarmup(ListableBeanFactory beanFactory, EntityManager em, PlatformTransactionManager transactionManager,
+                                 @Value("${app.warmup.parallelism:4}") int parallelism,
+                                 @Value("${app.warmup.timeout:30s}") Duration timeout,
+                                 @Value("${app.warmup.named-queries:}") List<String> namedQueries) {
+        this.beanFactory = beanFactory;
+        this.em = em;
+        this.warmupTx = new TransactionTemplate(transactionManager);
+        this.warmupTx.setReadOnly(true);
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+        this.namedQueries = namedQueries;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    public List<Result> warmUp() {
+        List<Task> tasks = new ArrayList<>();
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : information.getQueryMethods()) {
+                if (skip(method)) {
+                    continue;
+                }
+                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+                if (query != null && StringUtils.hasText(query.value())) {
+                    tasks.add(new Task(name, () -> compile(query)));
+                } else if (method.getParameterCount() > 0) {
+                    tasks.add(new Task(name, () -> ReflectionUtils.invokeMethod(method, repository, defaultArguments(method, domainType))));
+                }
+            }
+        }
+        for (String namedQuery : namedQueries) {
+            tasks.add(new Task("@NamedQuery " + namedQuery, () -> em.createNamedQuery(namedQuery)));
+        }
+
+        List<Result> results = runAll(tasks);
+        report(results);
+        return results;
+    }
+
+    private List<Result> runAll(List<Task> tasks) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "query-warmup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Callable<Result>> callables = tasks.stream().<Callable<Result>>map(task -> () -> execute(task)).toList();
+            List<Future<Result>> futures = executor.invokeAll(callables, timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            List<Result> results = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(resultOf(tasks.get(i), futures.get(i)));
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Result execute(Task task) {
+        long start = System.nanoTime();
+        try {
+            warmupTx.executeWithoutResult(status -> {
+                status.setRollbackOnly(); // 혹시 뭘 바꿔도 남지 않게
+                task.action().run();
+            });
+            return new Result(task.name(), Duration.ofNanos(System.nanoTime() - start), null);
+        } catch (RuntimeException e) {
+            return new Result(task.name(), Duration.ofNanos(System.nanoTime() - start), e.toString());
+        }
+    }
+
+    private static Result resultOf(Task task, Future<Result> future) {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            return new Result(task.name(), null, "timed out");
+        } catch (ExecutionException e) {
+            return new Result(task.name(), null, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(task.name(), null, "interrupted");
+        }
+    }
+
+    private void report(List<Result> results) {
+        long failed = results.stream().filter(result -> result.error() != null).count();
+        log.info("query warm-up: {} queries, {} failed", results.size(), failed);
+        results.stream()
+                .filter(result -> result.elapsed() != null)
+                .sorted(Comparator.comparing(Result::elapsed).reversed())
+                .forEach(result -> log.info("  {} ms  {}", String.format("%7.2f", result.elapsed().toNanos() / 1_000_000.0), result.name()));
+        results.stream()
+                .filter(result -> result.error() != null)
+                .forEach(result -> log.warn("  warm-up failed: {} ({})", result.name(), result.error()));
+    }
+
+    // 파싱 + 변환만 하고 실행은 안 함 (하이버네이트 쿼리 인터프리테이션 캐시에 들어감)
+    private void compile(Query query) {
+        em.createQuery(query.value());
+        if (StringUtils.hasText(query.countQuery())) {
+            em.createQuery(query.countQuery());
+        }
+    }
+
+    private static boolean skip(Method method) {
+        String name = method.getName();
+        Class<?> returnType = method.getReturnType();
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        return AnnotatedElementUtils.hasAnnotation(method, Modifying.class)
+                || (query != null && query.nativeQuery())
+                || AnnotatedElementUtils.hasAnnotation(method, Lock.class)
+                || AnnotatedElementUtils.hasAnnotation(method, Async.class)
+                || name.startsWith("delete") || name.startsWith("remove")
+                || BaseStream.class.isAssignableFrom(returnType)
+                || Future.class.isAssignableFrom(returnType);
+    }
+
+    // 결과는 상관없고 쿼리가 한 번 나가기만 하면 됨
+    private static Object[] defaultArguments(Method method, Class<?> domainType) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            args[i] = defaultValue(types[i], domainType);
+        }
+        return args;
+    }
+
+    private static Object defaultValue(Class<?> type, Class<?> domainType) {
+        if (type == String.class) {
+            return "";
+        }
+        if (type == int.class || type == Integer.class) {
+            return 0;
+        }
+        if (type == long.class || type == Long.class) {
+            return 0L;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return false;
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 1);
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (type == Limit.class) {
+            return Limit.of(1);
+        }
+        if (type == ScrollPosition.class) {
+            return ScrollPosition.keyset();
+        }
+        if (type == Class.class) { // 동적 프로젝션 -> 엔티티 그대로
+            return domainType;
+        }
+        if (type == Set.class) {
+            return Set.of("");
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of("");
+        }
+        if (type.isPrimitive()) { // 나머지 기본 타입 (short, double ...)
+            return java.lang.reflect.Array.get(java.lang.reflect.Array.newInstance(type, 1), 0);
+        }
+        return null;
+    }
+
+    private record Task(String name, Runnable action) {
+    }
+
+    public record Result(String name, Duration elapsed, String error) {
+    }
+
+}
@@ -0,0 +1,28 @@
+package Study.data_jpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 스키마는 Flyway 마이그레이션(db/migration)으로, 하이버네이트는 validate 만
+ * 기본은 migrate 만 (spring.flyway.clean-disabled: true)
+ * 예전 ddl-auto: create 처럼 띄울 때마다 비우고 다시 만드는 건 local 프로필에서만 (app.schema.recreate-on-startup: true)
+ * (test 프로필은 컨텍스트마다 새 메모리 DB 라 clean 안 함, 공유 DB 를 clean 하면 캐시된 다른 테스트 컨텍스트가 깨짐)
+ * -> clean (전부 drop) 후 migrate, clean-disabled 가 그대로면 clean 에서 예외 (운영 DB 를 실수로 비우지 않게)
+ */
+@Configuration
+public class SchemaConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${app.schema.recreate-on-startup:false}") boolean recreate) {
+        return flyway -> {
+            if (recreate) {
+                flyway.clean();
+            }
+            flyway.migrate();
+        };
+    }
+
+}
@@ -0,0 +1,33 @@
+package Study.data_jpa.config;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.entity.Team;
+import Study.data_jpa.repository.BatchLoader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * @PathVariable("id") Member member 같은 도메인 클래스 변환을 BatchLoader 로
+ * 스프링 데이터의 DomainClassConverter 는 요청마다 findById 를 따로 날림.
+ * String -> Member 처럼 딱 맞는 타입 컨버터가 Object -> Object 인 DomainClassConverter 보다 먼저 선택됨.
+ * (없는 id 면 DomainClassConverter 처럼 null)
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final BatchLoader<Long, Member> memberLoader;
+    private final BatchLoader<Long, Team> teamLoader;
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, Member.class,
+                id -> StringUtils.hasText(id) ? memberLoader.load(Long.valueOf(id.trim())).orElse(null) : null);
+        registry.addConverter(String.class, Team.class,
+                id -> StringUtils.hasText(id) ? teamLoader.load(Long.valueOf(id.trim())).orElse(null) : null);
+    }
+
+}
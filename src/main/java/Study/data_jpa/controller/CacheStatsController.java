@@ -0,0 +1,43 @@
+package Study.data_jpa.controller;
+
+import Study.data_jpa.dto.CacheRegionStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 2차 캐시 리전별 hit/miss 통계
+ * hibernate.generate_statistics: true 일 때만 값이 쌓임.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final EntityManagerFactory emf;
+
+    @GetMapping("/cache/stats")
+    public Map<String, CacheRegionStatsDto> stats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, CacheRegionStatsDto> result = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            long hit = region.getHitCount();
+            long miss = region.getMissCount();
+            double hitRatio = hit + miss == 0 ? 0 : (double) hit / (hit + miss);
+            result.put(regionName, new CacheRegionStatsDto(hit, miss, region.getPutCount(), hitRatio, region.getElementCountInMemory()));
+        }
+        return result;
+    }
+
+}
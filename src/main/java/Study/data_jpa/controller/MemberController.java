@@ -1,30 +1,52 @@
 package Study.data_jpa.controller;
 
 import Study.data_jpa.dto.MemberDto;
+import Study.data_jpa.dto.MemberScrollDto;
 import Study.data_jpa.entity.Member;
+import Study.data_jpa.repository.BatchLoader;
 import Study.data_jpa.repository.MemberRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_SCROLL_SIZE = 2000; // spring.data.web.pageable.max-page-size 와 맞춤
+
     private final MemberRepository memberRepository;
+    private final BatchLoader<Long, Member> memberLoader;
+    private final ObjectMapper objectMapper;
 
     /**
      * HTTP 요청은 회원 id 를 받지만 도메인 클래스 컨버터가 중간에 동작해서 회원 엔티티 객체를 반환.
      * 도메인 클래스 컨버터도 리파지토리를 사용해서 엔티티를 찾음.
      * 주의 : 도메인 클래스 컨버터로 엔티티를 파라미터로 받으면, 이 엔티티는 단순 조회용으로만 사용해야 한다.
      * (트랜잭션이 없는 범위에서 엔티티를 조회했으므로, 엔티티를 변경해도 DB에 반영되지 않는다.)
+     * 지금은 WebConfig 의 String -> Member 컨버터가 먼저 잡혀서 memberLoader 로 묶어서 조회함.
      */
     @GetMapping("/members2/{id}")
     public String findMember2(@PathVariable("id") Member member) {
@@ -32,9 +54,11 @@ public class MemberController {
         return member.getUsername();
     }
 
+    // 동시에 들어온 요청들의 id 를 모아서 where id in (...) 한 번으로 (BatchLoader)
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
+//        Member member = memberRepository.findById(id).get();
+        Member member = memberLoader.load(id).orElseThrow();
         return member.getUsername();
     }
 
@@ -65,8 +89,77 @@ public class MemberController {
     @GetMapping("/members")
     public Page<MemberDto> list(@PageableDefault(size = 5, sort = "username", direction = Sort.Direction.DESC) Pageable pageable) {
 //        return memberRepository.findAll(pageable).map(m -> new MemberDto(m.getId(), m.getUsername(), null));
-        return memberRepository.findAll(pageable) // DTO에서 생성자로 받아서 리턴
-                .map(MemberDto::new);
+//        return memberRepository.findAll(pageable) // DTO에서 생성자로 받아서 리턴
+//                .map(MemberDto::new); // row 마다 team 지연 로딩(N + 1)
+        return memberRepository.findMemberDtoPage(pageable); // select + count 쿼리 2번으로 끝
+    }
+
+    /**
+     * # 키셋(커서) 페이징
+     * 예) /members/scroll?size=20 -> 응답의 nextCursor 로 /members/scroll?size=20&cursor={nextCursor}
+     * username, id 순으로 정렬해서 마지막으로 읽은 row 다음부터 가져옴. (offset, count 쿼리 없음)
+     */
+    @GetMapping("/members/scroll")
+    public MemberScrollDto scroll(@RequestParam(value = "cursor", required = false) String cursor,
+                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        Window<Member> window = memberRepository.findMemberWindow(ScrollCursor.decode(cursor), limit);
+
+        List<MemberDto> content = window.map(MemberDto::new).getContent();
+        String nextCursor = window.hasNext() ? ScrollCursor.encode(window.positionAt(window.size() - 1)) : null;
+        return new MemberScrollDto(content, nextCursor, window.hasNext());
+    }
+
+    /**
+     * # 회원 전체 내보내기 (스트리밍)
+     * 예) /members/export (NDJSON, 한 줄에 JSON 하나), /members/export?format=csv
+     * DB 에서 fetchSize 만큼 읽는 대로 바로 응답으로 써서, 회원이 천만 명이어도 메모리는 일정하고 첫 바이트가 바로 나감.
+     * Stream 은 트랜잭션 안에서 소비해야 해서 여기에 @Transactional(readOnly = true)
+     */
+    @GetMapping("/members/export")
+    @Transactional(readOnly = true)
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            if (csv) {
+                writeCsv(members, response);
+            } else {
+                writeNdjson(members, response.getOutputStream());
+            }
+        }
+    }
+
+    private void writeNdjson(Stream<MemberDto> members, ServletOutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MemberDto.class);
+        for (MemberDto member : (Iterable<MemberDto>) members::iterator) {
+            out.write(writer.writeValueAsBytes(member));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private void writeCsv(Stream<MemberDto> members, HttpServletResponse response) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        writer.write("id,username,teamName\n");
+        for (MemberDto member : (Iterable<MemberDto>) members::iterator) {
+            writer.write(member.getId() + "," + csvField(member.getUsername()) + "," + csvField(member.getTeamName()) + "\n");
+        }
+        writer.flush();
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     /*@GetMapping("/members")
@@ -0,0 +1,56 @@
+package Study.data_jpa.controller;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 키셋 페이징 커서 (username, id)
+ * 클라이언트에는 정렬 키를 그대로 노출하지 않고 Base64(URL-safe) 문자열(불투명 토큰)로 넘겨줌.
+ * 토큰 형식: "{id}:{username}" -> username 에 ':' 가 있어도 첫 번째 ':' 로만 자르기 때문에 상관 없음.
+ * username 이 null 이면 "{id}" 만 (':' 없음) -> "null" 이라는 이름과 구분됨
+ * 잘못된 커서는 400 (클라이언트가 토큰을 망가뜨린 것)
+ */
+public final class ScrollCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private ScrollCursor() {
+    }
+
+    public static String encode(ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        Object username = keys.get("username");
+        String raw = username == null ? String.valueOf(keys.get("id")) : keys.get("id") + ":" + username;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서가 없으면 처음부터(ScrollPosition.keyset())
+     */
+    public static ScrollPosition decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            Map<String, Object> keys = new LinkedHashMap<>(); // 정렬 순서(username, id) 대로
+            keys.put("username", separator < 0 ? null : raw.substring(separator + 1));
+            keys.put("id", Long.valueOf(separator < 0 ? raw : raw.substring(0, separator)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) { // Base64, 숫자 형식 오류
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 커서: " + cursor, e);
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package Study.data_jpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheRegionStatsDto {
+
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRatio;
+    private long elementCountInMemory; // 캐시 구현체가 지원 안 하면 -1
+
+}
@@ -20,7 +20,7 @@ public class MemberDto {
     public MemberDto(Member member) {
         this.id = member.getId();
         this.username = member.getUsername();
-        this.teamName = member.getTeam().getName();
+        this.teamName = member.getTeam() != null ? member.getTeam().getName() : null; // 팀 없는 회원도 있음
     }
 
 }
@@ -0,0 +1,20 @@
+package Study.data_jpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 응답
+ * nextCursor 를 다음 요청의 cursor 파라미터로 그대로 넘기면 됨. (마지막이면 null)
+ */
+@Data
+@AllArgsConstructor
+public class MemberScrollDto {
+
+    private List<MemberDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+}
@@ -34,6 +34,11 @@ public class Item implements Persistable<String> { // 직접 id를 만들어 줄
         this.id = id;
     }
 
+    // id 를 따로 받아오지 않을 때는 랜덤 UUID 대신 시간 순서 id 로 (PK 인덱스에 뒤쪽으로만 쌓임)
+    public static Item create() {
+        return new Item(TimeOrderedIdGenerator.nextId());
+    }
+
     // @GeneratedValue 안 쓰고 직접 id 만들 때, 원랜 getId()도 있지만 @Getter 때문에 생략됨.
     @Override
     public boolean isNew() {
@@ -1,7 +1,10 @@
 package Study.data_jpa.entity;
 
+import Study.data_jpa.repository.MemberUsernameCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
@@ -12,10 +15,18 @@ import lombok.*;
 //        name="Member.findByUsername", // 아무렇게 줘도 됨, 관례상 이렇게 줬음.
 //        query="select m from Member m where m.username = :username")
 //@NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // username 캐시로 찾은 id 를 em.find 할 때 DB 안 가게
+@EntityListeners(MemberUsernameCacheListener.class)
 public class Member extends BaseEntity {
 
+    /**
+     * 시퀀스 pooled 최적화: allocationSize 만큼 한 번에 시퀀스를 당겨와서 메모리에서 id 를 나눠줌.
+     * (insert 100건에 시퀀스 호출 1번) hibernate.jdbc.batch_size 와 맞춰두면 insert 도 한 번에 묶여서 나감.
+     */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
     private String username;
@@ -25,6 +36,15 @@ public class Member extends BaseEntity {
     @JoinColumn(name = "team_id")
     private Team team;
 
+    /**
+     * 낙관적 락: update ... where member_id = ? and version = ? 로 나가고, 그 사이 다른 트랜잭션이 먼저 바꿨으면 0건 -> OptimisticLockException
+     * 락을 안 잡으니까 동시에 읽는 건 안 막힘, 충돌 나면 @OptimisticRetry 로 다시
+     * 주의: JPQL 벌크 update 는 버전을 안 올림 -> update versioned Member ... 로 써야 함
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     public Member(String username) {
         this.username = username;
     }
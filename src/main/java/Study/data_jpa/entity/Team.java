@@ -5,6 +5,9 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,15 +16,24 @@ import java.util.List;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 (조회가 대부분, 가끔 수정)
+@BatchSize(size = 100) // member.getTeam() 프록시 초기화할 때 다른 회원들의 팀도 100개씩 한 번에 (where team_id in (...))
 public class Team {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 100) // Member 와 동일
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
+    @Version // Member 와 동일 (낙관적 락)
+    private Long version;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 회원 id 목록만 캐시, 회원 엔티티 자체는 따로 조회
+    @BatchSize(size = 100) // team.getMembers() 초기화할 때 영속성 컨텍스트에 있는 다른 팀들의 members 도 100개씩 한 번에
     @OneToMany(mappedBy = "team")
     List<Member> members = new ArrayList<>();
 
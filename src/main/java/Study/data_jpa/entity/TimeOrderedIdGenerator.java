@@ -0,0 +1,66 @@
+package Study.data_jpa.entity;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 시간 순서로 정렬되는 id 생성기 (ULID 형식)
+ * 랜덤 UUID 를 PK 로 쓰면 insert 가 B-tree 인덱스 여기저기에 흩어져서 페이지 분할이 많이 생기고 인덱스가 커짐.
+ * ULID 는 앞 48비트가 밀리초 시간, 뒤 80비트가 랜덤이라 나중에 만든 id 가 항상 뒤쪽으로 들어감.
+ *
+ * -26자, Crockford Base32 (0-9, A-Z 에서 I, L, O, U 제외) -> URL 에 그대로 써도 됨
+ * -문자열 정렬 순서 = 생성 시간 순서
+ * -같은 스레드 안에서는 같은 밀리초에 여러 개를 만들어도 랜덤 부분을 +1 해서 항상 증가함(monotonic)
+ * -스레드마다 상태를 따로 들고 있어서 락이 없음. 대신 다른 스레드끼리는 밀리초 단위까지만 순서가 보장됨.
+ */
+public final class TimeOrderedIdGenerator {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 26;
+    private static final long RANDOM_HI_MASK = 0xFFFFL; // 80비트 랜덤 중 위 16비트
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private TimeOrderedIdGenerator() {
+    }
+
+    public static String nextId() {
+        return STATE.get().next(System.currentTimeMillis());
+    }
+
+    private static final class State {
+
+        private long lastTime = -1;
+        private long randomHi; // 16비트
+        private long randomLo; // 64비트
+
+        String next(long now) {
+            if (now > lastTime) {
+                lastTime = now;
+                reseed();
+            } else if (++randomLo == 0 && ++randomHi > RANDOM_HI_MASK) {
+                // 같은 밀리초에 2^80 개를 다 쓴 경우(사실상 없음) 다음 밀리초로 넘김. 시계가 뒤로 가도 lastTime 기준으로 계속 증가.
+                lastTime++;
+                reseed();
+            }
+            return encode((lastTime << 16) | randomHi, randomLo);
+        }
+
+        private void reseed() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            randomHi = random.nextLong() & RANDOM_HI_MASK;
+            randomLo = random.nextLong();
+        }
+
+        // 128비트(hi, lo)를 뒤에서부터 5비트씩 잘라서 문자로 바꿈
+        private static String encode(long hi, long lo) {
+            char[] chars = new char[LENGTH];
+            for (int i = LENGTH - 1; i >= 0; i--) {
+                chars[i] = ALPHABET[(int) (lo & 31)];
+                lo = (lo >>> 5) | (hi << 59);
+                hi >>>= 5;
+            }
+            return new String(chars);
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package Study.data_jpa.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * 스레드별 JDBC 문장 수, 로딩된 엔티티 수
+ * 하이버네이트 Statistics 는 전체 합계라서 "이 리포지토리 메서드가 쿼리를 몇 번 날렸나"를 알 수 없음.
+ * 그래서 SQL 을 준비할 때(StatementInspector), 엔티티를 로딩할 때(Interceptor.onLoad) 현재 스레드 카운터만 올려두고,
+ * RepositoryMetricsInterceptor 가 메서드 호출 전후 값의 차이를 기록함.
+ */
+public class QueryStatistics implements StatementInspector, Interceptor {
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITIES = 1;
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[2]);
+
+    public static long statementCount() {
+        return COUNTERS.get()[STATEMENTS];
+    }
+
+    public static long entityLoadCount() {
+        return COUNTERS.get()[ENTITIES];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNTERS.get()[STATEMENTS]++;
+        return sql; // SQL 은 바꾸지 않음
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        COUNTERS.get()[ENTITIES]++;
+        return false; // state 를 바꾸지 않음
+    }
+
+}
@@ -0,0 +1,32 @@
+package Study.data_jpa.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 리포지토리 메서드별 쿼리 지표 (Micrometer)
+ * /actuator/metrics/repository.query?tag=method:findMemberDto() 또는 /actuator/queries 로 확인 (method 태그는 파라미터 타입까지)
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatisticsCustomizer() {
+        QueryStatistics queryStatistics = new QueryStatistics();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryStatistics);
+            properties.put(AvailableSettings.INTERCEPTOR, queryStatistics);
+        };
+    }
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어져야 해서 static
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetricsPostProcessor(meterRegistry);
+    }
+
+}
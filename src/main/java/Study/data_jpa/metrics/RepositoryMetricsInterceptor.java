@@ -0,0 +1,152 @@
+package Study.data_jpa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * 리포지토리 메서드 호출마다 기록 (태그: repository, method)
+ * method 태그는 파라미터 타입까지 (findLockByUsername(String), findLockByUsername(String,Duration)) -> 오버로드가 한 시리즈로 섞이지 않게
+ * -repository.query : 걸린 시간 (히스토그램, outcome=success|error)
+ * -repository.query.statements : 날린 JDBC 문장 수
+ * -repository.query.rows : 돌려준 결과 수 (컬렉션, Page, Slice, Window, Optional, 단건)
+ * -repository.query.entities : 로딩된 엔티티 수 (지연 로딩 N + 1 이 여기서 보임)
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    static final String TIMER_NAME = "repository.query";
+
+    // 지금 이 스레드에서 실행 중인 리포지토리 메서드 (느린 SQL 로그에 같이 남김, SlowQueryLog)
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final String repository;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(MeterRegistry registry, String repository) {
+        this.registry = registry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) { // toString, equals, hashCode
+            return invocation.proceed();
+        }
+
+        MethodMeters methodMeters = meters.computeIfAbsent(method, this::createMeters);
+        long statementsBefore = QueryStatistics.statementCount();
+        long entitiesBefore = QueryStatistics.entityLoadCount();
+        String outerMethod = CURRENT_METHOD.get(); // 리포지토리 안에서 다른 리포지토리를 부르는 경우
+        CURRENT_METHOD.set(methodMeters.qualifiedName());
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            record(methodMeters, true, start, statementsBefore, entitiesBefore);
+            methodMeters.rows().record(rowCount(result));
+            return result;
+        } catch (Throwable e) {
+            record(methodMeters, false, start, statementsBefore, entitiesBefore);
+            throw e;
+        } finally {
+            if (outerMethod == null) {
+                CURRENT_METHOD.remove();
+            } else {
+                CURRENT_METHOD.set(outerMethod);
+            }
+        }
+    }
+
+    // ex) MemberRepository.findByAge(int,Pageable), 리포지토리 밖이면 null
+    public static String currentMethod() {
+        return CURRENT_METHOD.get();
+    }
+
+    private static void record(MethodMeters methodMeters, boolean success, long start, long statementsBefore, long entitiesBefore) {
+        long elapsed = System.nanoTime() - start;
+        (success ? methodMeters.success() : methodMeters.error()).record(elapsed, TimeUnit.NANOSECONDS);
+        methodMeters.statements().record(QueryStatistics.statementCount() - statementsBefore);
+        methodMeters.entities().record(QueryStatistics.entityLoadCount() - entitiesBefore);
+    }
+
+    private MethodMeters createMeters(Method method) {
+        String signature = signature(method);
+        return new MethodMeters(
+                repository + "." + signature,
+                timer(signature, "success"),
+                timer(signature, "error"),
+                summary("repository.query.statements", signature),
+                summary("repository.query.rows", signature),
+                summary("repository.query.entities", signature));
+    }
+
+    // findLockByUsername(String,Duration)
+    static String signature(Method method) {
+        StringJoiner parameters = new StringJoiner(",", method.getName() + "(", ")");
+        for (Class<?> type : method.getParameterTypes()) {
+            parameters.add(type.getSimpleName());
+        }
+        return parameters.toString();
+    }
+
+    private Timer timer(String signature, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .tag("repository", repository)
+                .tag("method", signature)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private DistributionSummary summary(String name, String signature) {
+        return DistributionSummary.builder(name)
+                .tag("repository", repository)
+                .tag("method", signature)
+                .register(registry);
+    }
+
+    // Stream, CompletableFuture 처럼 호출 시점에 개수를 모르는 반환 타입, count/벌크 update 결과 같은 숫자는 0
+    static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) { // Page 포함
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean
+                || result instanceof BaseStream<?, ?> || result instanceof Future<?>) {
+            return 0;
+        }
+        return 1;
+    }
+
+    private record MethodMeters(String qualifiedName, Timer success, Timer error,
+                                DistributionSummary statements, DistributionSummary rows, DistributionSummary entities) {
+    }
+
+}
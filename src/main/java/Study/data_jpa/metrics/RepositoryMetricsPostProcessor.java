@@ -0,0 +1,63 @@
+package Study.data_jpa.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 리포지토리에 RepositoryMetricsInterceptor 를 끼워 넣음.
+ * -스프링 데이터 리포지토리(MemberRepository...): 리포지토리 프록시를 만들 때 맨 앞에 추가 (트랜잭션 시작~커밋까지 포함해서 잼)
+ * -직접 만든 @Repository 클래스(MemberJpaRepository, TeamJpaRepository): 이미 만들어진 프록시 맨 앞에 추가
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(0,
+                            interceptor(information.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof org.springframework.data.repository.Repository<?, ?>) {
+            return bean; // 위에서 처리
+        }
+
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (AnnotationUtils.findAnnotation(targetClass, Repository.class) == null) {
+            return bean;
+        }
+
+        RepositoryMetricsInterceptor interceptor = interceptor(targetClass.getSimpleName());
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    private RepositoryMetricsInterceptor interceptor(String repository) {
+        return new RepositoryMetricsInterceptor(meterRegistry.getObject(), repository);
+    }
+
+}
@@ -0,0 +1,61 @@
+package Study.data_jpa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /actuator/queries
+ * 리포지토리 메서드별 호출 수, 평균/최대/백분위 지연시간(ms), 호출당 평균 문장 수, 결과 수, 로딩 엔티티 수를 한눈에.
+ */
+@Component
+@Endpoint(id = "queries")
+@RequiredArgsConstructor
+public class RepositoryQueriesEndpoint {
+
+    private final MeterRegistry registry;
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> queries() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (Timer timer : registry.find(RepositoryMetricsInterceptor.TIMER_NAME).timers()) {
+            if (timer.count() == 0) {
+                continue;
+            }
+            String repository = timer.getId().getTag("repository");
+            String method = timer.getId().getTag("method");
+            String key = repository + "." + method + " [" + timer.getId().getTag("outcome") + "]"; // method 는 findUser(String,int) 처럼 괄호가 붙어 있음
+
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", snapshot.count());
+            stats.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            stats.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                stats.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            stats.put("statementsPerCall", mean("repository.query.statements", repository, method));
+            stats.put("rowsPerCall", mean("repository.query.rows", repository, method));
+            stats.put("entitiesPerCall", mean("repository.query.entities", repository, method));
+            result.put(key, stats);
+        }
+        return result;
+    }
+
+    private double mean(String name, String repository, String method) {
+        DistributionSummary summary = registry.find(name).tag("repository", repository).tag("method", method).summary();
+        return summary == null ? 0 : summary.mean();
+    }
+
+}
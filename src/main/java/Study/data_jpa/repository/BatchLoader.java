@@ -0,0 +1,135 @@
+package Study.data_jpa.repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * id 조회 모아서 한 번에 (DataLoader 방식)
+ * 동시에 들어온 load(id) 를 window 동안 (또는 maxBatchSize 개가 찰 때까지) 모아서 where id in (...) 쿼리 한 번으로 가져오고,
+ * 기다리던 호출들한테 나눠줌. 같은 id 를 여러 요청이 동시에 찾으면 (hot key) 쿼리에는 한 번만 들어감.
+ *
+ * -따로 스레드를 안 띄우고, 배치를 새로 연 호출(리더)이 window 만큼 기다렸다가 직접 쿼리를 날림
+ * -maxBatchSize 를 채운 호출이 있으면 그 호출이 바로 날림 (리더는 결과만 기다림)
+ * -트래픽이 없을 때는 요청 하나가 window 만큼 늦어짐 -> window 는 쿼리 한 번보다 훨씬 짧게 (ms 단위)
+ * -가상 스레드에서 pinning 안 되게 synchronized 대신 ReentrantLock
+ * 주의: 결과는 다른 요청 스레드들이 나눠 쓰니까 loader 는 호출한 스레드의 영속성 컨텍스트(OSIV)에 붙으면 안 됨
+ *  -loader 안에서 자기 트랜잭션을 열고 닫아서 준영속으로 넘기고, 필요한 연관관계는 미리 초기화 (BatchLoaderConfig)
+ *  -받은 엔티티는 조회용으로만
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<Collection<K>, ? extends Iterable<V>> loader;
+    private final Function<V, K> keyOf;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<K, CompletableFuture<V>> pending; // 지금 모으고 있는 배치, lock 으로 보호
+
+    public BatchLoader(Function<Collection<K>, ? extends Iterable<V>> loader, Function<V, K> keyOf,
+                       Duration window, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.loader = loader;
+        this.keyOf = keyOf;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Optional<V> load(K key) {
+        Map<K, CompletableFuture<V>> batch;
+        CompletableFuture<V> future;
+        boolean leader;
+        boolean full;
+
+        lock.lock();
+        try {
+            leader = pending == null;
+            if (leader) {
+                pending = new LinkedHashMap<>();
+            }
+            batch = pending;
+            future = batch.computeIfAbsent(key, k -> new CompletableFuture<>());
+            full = batch.size() >= maxBatchSize;
+            if (full) {
+                pending = null; // 다음 호출부터는 새 배치
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full) {
+            dispatch(batch);
+        } else if (leader) {
+            awaitWindow();
+            if (detach(batch)) { // 그 사이에 꽉 차서 다른 호출이 날렸으면 false
+                dispatch(batch);
+            }
+        }
+        return Optional.ofNullable(join(future));
+    }
+
+    private void awaitWindow() {
+        long deadline = System.nanoTime() + windowNanos;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) { // 기다리는 건 그만두고 바로 날림, 인터럽트 상태는 살려둠
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean detach(Map<K, CompletableFuture<V>> batch) {
+        lock.lock();
+        try {
+            if (pending != batch) {
+                return false;
+            }
+            pending = null;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock 밖에서 실행 (쿼리 도는 동안에도 다음 배치는 계속 모음)
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> loaded = new HashMap<>();
+            for (V value : loader.apply(List.copyOf(batch.keySet()))) {
+                loaded.put(keyOf.apply(value), value);
+            }
+            batch.forEach((key, future) -> future.complete(loaded.get(key))); // 없는 id 는 null
+        } catch (Throwable e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+}
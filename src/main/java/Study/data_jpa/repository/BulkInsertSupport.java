@@ -0,0 +1,39 @@
+package Study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * 대량 저장(bulk insert)
+ * persist 만 계속하면 영속성 컨텍스트(1차 캐시)에 엔티티가 계속 쌓여서 메모리가 늘어나고 flush 때 변경 감지 비용도 커짐.
+ * 그래서 hibernate.jdbc.batch_size 만큼 persist 할 때마다 flush(JDBC 배치로 insert) + clear(1차 캐시 비우기)를 해줌.
+ * 주의: clear 를 하기 때문에 같은 트랜잭션에서 이전에 조회한 엔티티들도 전부 준영속 상태가 됨.
+ */
+final class BulkInsertSupport {
+
+    private static final String BATCH_SIZE_PROPERTY = "hibernate.jdbc.batch_size";
+    private static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private BulkInsertSupport() {
+    }
+
+    static <T> int persistInChunks(EntityManager em, Iterable<T> entities) {
+        int chunkSize = chunkSize(em);
+        int count = 0;
+        for (T entity : entities) {
+            em.persist(entity);
+            if (++count % chunkSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    private static int chunkSize(EntityManager em) {
+        Object batchSize = em.getEntityManagerFactory().getProperties().get(BATCH_SIZE_PROPERTY);
+        return batchSize == null ? DEFAULT_CHUNK_SIZE : Integer.parseInt(batchSize.toString());
+    }
+
+}
@@ -0,0 +1,41 @@
+package Study.data_jpa.repository;
+
+import Study.data_jpa.repository.ChunkedBulkUpdateExecutor.IdRange;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 나눠서 돌린 벌크 update 결과
+ * remainingRanges 가 비어 있지 않으면 ChunkedBulkUpdateExecutor.resume(result) 로 남은 범위만 다시 돌리면 됨
+ */
+@Getter
+public class BulkUpdateResult {
+
+    private final long updatedRows;
+    private final int completedChunks;
+    private final List<IdRange> remainingRanges; // 실패했거나 시작 못 한 범위
+    private final RuntimeException failure; // 처음 난 예외
+
+    @Getter(AccessLevel.NONE)
+    private final ChunkedBulkUpdateExecutor.Job job; // resume 할 때 같은 JPQL, 파라미터로
+
+    BulkUpdateResult(ChunkedBulkUpdateExecutor.Job job, long updatedRows, int completedChunks,
+                     List<IdRange> remainingRanges, RuntimeException failure) {
+        this.job = job;
+        this.updatedRows = updatedRows;
+        this.completedChunks = completedChunks;
+        this.remainingRanges = List.copyOf(remainingRanges);
+        this.failure = failure;
+    }
+
+    public boolean isComplete() {
+        return remainingRanges.isEmpty();
+    }
+
+    ChunkedBulkUpdateExecutor.Job job() {
+        return job;
+    }
+
+}
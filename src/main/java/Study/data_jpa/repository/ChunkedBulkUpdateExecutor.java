@@ -0,0 +1,195 @@
+package Study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 벌크 update 를 id 범위로 잘라서 나눠 실행
+ * update Member m set m.age = m.age + 1 where m.age >= :age 를 한 방에 날리면 끝날 때까지 대상 row 전부에 락이 걸려 있어서
+ * 그동안 findLockByUsername 같은 쓰기는 다 기다림.
+ * 여기서는 [fromId, toId) 범위마다 짧은 트랜잭션(REQUIRES_NEW)을 따로 열어서, 락은 범위 하나만큼만 잡고 바로 커밋.
+ * 범위들은 bulkUpdateExecutor 스레드에서 parallelism 개까지 동시에 돌림.
+ *
+ * -JPQL 에 :fromId, :toId 조건을 직접 넣어야 함 (where ... and m.id >= :fromId and m.id < :toId)
+ * -범위 하나가 실패하면 새 범위는 더 시작하지 않고, 실패 + 못 돌린 범위를 결과에 남김 -> resume(result) 로 거기서부터 다시
+ * -커밋된 범위는 다시 돌리지 않아서 age + 1 처럼 두 번 돌면 안 되는 update 도 이어서 돌릴 수 있음
+ * 주의
+ *  -한 방 update 처럼 전체가 원자적이지 않음 (중간에 다른 트랜잭션이 일부만 바뀐 상태를 볼 수 있음)
+ *  -시작할 때 읽은 max(id) 까지만, 그 뒤에 저장된 row 는 대상 아님
+ *  -호출한 쪽 트랜잭션과 별개로 커밋됨
+ */
+@Component
+public class ChunkedBulkUpdateExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedBulkUpdateExecutor.class);
+
+    private final EntityManager em;
+    private final TransactionTemplate chunkTx;
+    private final TaskExecutor taskExecutor;
+    private final long chunkSize;
+    private final int parallelism;
+
+    public ChunkedBulkUpdateExecutor(EntityManager em,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("bulkUpdateExecutor") TaskExecutor taskExecutor,
+                                     @Value("${bulk-update.chunk-size:1000}") long chunkSize,
+                                     @Value("${bulk-update.parallelism:4}") int parallelism) {
+        this.em = em;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param entityClass update 대상 엔티티 (id 범위를 구할 때 씀)
+     * @param jpql :fromId, :toId 조건이 들어간 update JPQL
+     * @param params :fromId, :toId 말고 나머지 파라미터
+     */
+    public BulkUpdateResult execute(Class<?> entityClass, String jpql, Map<String, ?> params, ProgressListener listener) {
+        Job job = new Job(jpql, Map.copyOf(params));
+        return run(job, ranges(entityClass), listener);
+    }
+
+    public BulkUpdateResult execute(Class<?> entityClass, String jpql, Map<String, ?> params) {
+        return execute(entityClass, jpql, params, ProgressListener.LOGGING);
+    }
+
+    // 실패하고 남은 범위만 다시
+    public BulkUpdateResult resume(BulkUpdateResult previous, ProgressListener listener) {
+        return run(previous.job(), previous.getRemainingRanges(), listener);
+    }
+
+    public BulkUpdateResult resume(BulkUpdateResult previous) {
+        return resume(previous, ProgressListener.LOGGING);
+    }
+
+    private List<IdRange> ranges(Class<?> entityClass) {
+        EntityType<?> entity = em.getMetamodel().entity(entityClass);
+        String id = entity.getId(entity.getIdType().getJavaType()).getName();
+        Object[] minMax = chunkTx.execute(status -> (Object[]) em.createQuery(
+                        "select min(e." + id + "), max(e." + id + ") from " + entity.getName() + " e")
+                .getSingleResult());
+        if (minMax == null || minMax[0] == null) { // 빈 테이블
+            return List.of();
+        }
+
+        long min = ((Number) minMax[0]).longValue();
+        long max = ((Number) minMax[1]).longValue();
+        List<IdRange> ranges = new ArrayList<>();
+        for (long from = min; from <= max; from += chunkSize) {
+            ranges.add(new IdRange(from, Math.min(from + chunkSize, max + 1)));
+        }
+        return ranges;
+    }
+
+    private BulkUpdateResult run(Job job, List<IdRange> ranges, ProgressListener listener) {
+        Semaphore slots = new Semaphore(parallelism);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicLong updatedRows = new AtomicLong();
+        AtomicInteger completedChunks = new AtomicInteger();
+        List<IdRange> remaining = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+
+        for (IdRange range : ranges) {
+            slots.acquireUninterruptibly();
+            if (failure.get() != null) { // 실패가 있으면 새 범위는 시작하지 않음
+                slots.release();
+                remaining.add(range);
+                continue;
+            }
+            try {
+                running.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        int updated;
+                        try {
+                            updated = runChunk(job, range);
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                            remaining.add(range);
+                            log.warn("bulk update chunk {} failed", range, e);
+                            return;
+                        }
+                        // 커밋된 범위는 리스너보다 먼저 진행 상황에 반영 (리스너가 터져도 remaining 에 넣으면 resume 때 두 번 적용됨)
+                        long total = updatedRows.addAndGet(updated);
+                        int completed = completedChunks.incrementAndGet();
+                        notify(listener, range, updated, completed, ranges.size(), total);
+                    } finally {
+                        slots.release();
+                    }
+                }, taskExecutor));
+            } catch (RuntimeException e) { // 풀에서 거절 (TaskRejectedException)
+                slots.release();
+                failure.compareAndSet(null, e);
+                remaining.add(range);
+            }
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+
+        List<IdRange> sorted = new ArrayList<>(remaining);
+        sorted.sort(Comparator.comparingLong(IdRange::fromId));
+        return new BulkUpdateResult(job, updatedRows.get(), completedChunks.get(), sorted, failure.get());
+    }
+
+    // 리스너 실패는 로그만 (범위는 이미 커밋됐으니 실패로 치지 않음)
+    private static void notify(ProgressListener listener, IdRange range, int updated, int completed, int total, long totalUpdated) {
+        try {
+            listener.onChunk(range, updated, completed, total, totalUpdated);
+        } catch (RuntimeException e) {
+            log.warn("bulk update progress listener failed after chunk {} committed", range, e);
+        }
+    }
+
+    private int runChunk(Job job, IdRange range) {
+        Integer updated = chunkTx.execute(status -> {
+            Query query = em.createQuery(job.jpql())
+                    .setParameter("fromId", range.fromId())
+                    .setParameter("toId", range.toId());
+            job.params().forEach(query::setParameter);
+            return query.executeUpdate();
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    record Job(String jpql, Map<String, Object> params) {
+    }
+
+    /**
+     * [fromId, toId)
+     */
+    public record IdRange(long fromId, long toId) {
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        ProgressListener LOGGING = (range, updated, completedChunks, totalChunks, totalUpdated) ->
+                log.info("bulk update {}/{} chunks, {} rows", completedChunks, totalChunks, totalUpdated);
+
+        // 범위 하나 커밋될 때마다 (여러 스레드에서 동시에 불릴 수 있음), 여기서 던진 예외는 로그만 남고 작업은 계속
+        void onChunk(IdRange range, int updated, int completedChunks, int totalChunks, long totalUpdated);
+    }
+
+}
@@ -3,5 +3,5 @@ package Study.data_jpa.repository;
 import Study.data_jpa.entity.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, String>, ItemRepositoryCustom { // Item 의 @Id 는 String
 }
@@ -0,0 +1,11 @@
+package Study.data_jpa.repository;
+
+import Study.data_jpa.entity.Item;
+
+import java.util.Collection;
+
+public interface ItemRepositoryCustom {
+
+    // 이미 있는 id 는 건너뛰고 없는 것만 insert (select 없이)
+    int upsertAll(Collection<Item> items);
+}
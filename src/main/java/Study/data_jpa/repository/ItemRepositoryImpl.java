@@ -0,0 +1,47 @@
+package Study.data_jpa.repository;
+
+import Study.data_jpa.entity.Item;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 외부에서 id 를 받아오는 엔티티(Item)의 대량 저장
+ * save() 는 isNew() 가 false 면(이미 한 번 저장됐거나 다시 보낸 Item) merge() 로 넘어가서 insert 전에 select 를 한 번씩 날림.
+ * 그래서 JPA 를 거치지 않고 H2 MERGE 문을 JDBC 배치로 보냄. (row 당 2번 왕복 -> 배치 당 1번)
+ *
+ * MERGE INTO ... KEY(id) 는 이미 있는 row 를 덮어써서 created_date 가 바뀌어 버리므로,
+ * 표준 MERGE 의 WHEN NOT MATCHED 만 써서 없는 id 만 넣음. (같은 데이터를 여러 번 보내도 결과가 같음)
+ * 주의: 영속성 컨텍스트를 거치지 않기 때문에 @CreatedDate 같은 Auditing 이 동작하지 않아서 직접 채워줌.
+ */
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String UPSERT_SQL =
+            "merge into item t using (values (cast(? as varchar), cast(? as timestamp))) s(id, created_date) " +
+            "on t.id = s.id " +
+            "when not matched then insert (id, created_date) values (s.id, s.created_date)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public int upsertAll(Collection<Item> items) {
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, items, BATCH_SIZE, (ps, item) -> {
+            ps.setString(1, item.getId());
+            ps.setTimestamp(2, Timestamp.valueOf(item.getCreatedDate() != null ? item.getCreatedDate() : now));
+        });
+        return Arrays.stream(counts)
+                .flatMapToInt(Arrays::stream)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+}
@@ -5,21 +5,32 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final ChunkedBulkUpdateExecutor bulkUpdateExecutor;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    // 대량 저장
+    @Transactional
+    public int bulkInsert(Iterable<Member> members) {
+        return BulkInsertSupport.persistInChunks(em, members);
+    }
+
     public void delete(Member member) {
         em.remove(member);
     }
@@ -74,10 +85,17 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return em.createQuery("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
     }
 
+    // 같은 update 를 id 범위로 나눠서 (범위마다 따로 커밋)
+    public BulkUpdateResult bulkAgePlusInChunks(int age) {
+        return bulkUpdateExecutor.execute(Member.class,
+                "update versioned Member m set m.age = m.age + 1 where m.age >= :age and m.id >= :fromId and m.id < :toId",
+                Map.of("age", age));
+    }
+
 
 }
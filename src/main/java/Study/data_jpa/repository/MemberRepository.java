@@ -9,9 +9,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 /**
  * @Repository 적용: JPA 예외를 스프링이 추상화한 예외로 변환 @Transactional 트랜잭션 적용
  * JPA의 모든 변경은 트랜잭션 안에서 동작
@@ -65,17 +69,52 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
+    /**
+     * 쿼리 결과 캐시 (org.hibernate.cacheable 힌트를 붙인 메서드만)
+     * 같은 쿼리 + 같은 파라미터면 DB 안 가고 캐시에서 꺼냄. 리전별 크기, TTL 은 ehcache.xml (org.hibernate.cacheRegion)
+     * Member, Team 테이블이 바뀌면(저장, 수정, 삭제, 벌크 update) 그 이전에 캐시된 결과는 버려짐.
+     * 주의: 네이티브 쿼리나 JdbcTemplate 으로 직접 바꾸면 하이버네이트가 모르니까 무효화가 안 됨.
+     */
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.usernameList")})
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
     // DTO로 조회
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.memberDto")})
     @Query("select new Study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    /**
+     * DTO로 바로 페이징 조회
+     * findAll(pageable).map(MemberDto::new) 은 row 마다 team 을 지연 로딩해서 N + 1 이 생김.
+     * left join 이라 팀이 없는 회원도 teamName = null 로 조회됨.
+     * count 쿼리는 조인 없이 member 만 셈.
+     */
+    @Query(value = "select new Study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    /**
+     * 대량 조회(export)용 스트리밍
+     * List 로 받으면 전체 결과를 메모리에 다 올리지만, Stream 은 JDBC ResultSet 커서를 fetchSize 만큼씩 읽어오면서 넘겨줌.
+     * DTO 로 조회해서 영속성 컨텍스트에 엔티티가 쌓이지 않음(따로 detach/clear 할 필요 없음).
+     * 주의: 트랜잭션 안에서 써야 하고, 다 쓰면 꼭 close (try-with-resources)
+     */
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("select new Study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t order by m.id")
+    Stream<MemberDto> streamMemberDto();
+
     // 컬렉션 파라미터 바인딩(자주 쓰임)
     // Collection 타입으로 IN 절 지원
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    // 개수가 많아지면 IN 절이 감당을 못 해서 findByNames 는 MemberRepositoryImpl 로 옮김
+//    @Query("select m from Member m where m.username in :names")
+//    List<Member> findByNames(@Param("names") List<String> names);
 
     /**
      * 스프링 데이터 JPA는 유연한 반환 타입 지원
@@ -146,7 +185,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * save, update는 디비로 먼저 쿼리 쳐줌.
      */
     @Modifying(clearAutomatically = true) // 이걸 해줘야 JPA의 executeUpdate() 같은 기능을 해줌. 안 해주면 resultList나 singleResult 이런걸 호출함.
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age") // versioned : @Version 도 같이 올림 (HQL)
     int bulkAgePlus(@Param("age") int age);
 
     /**
@@ -190,7 +229,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * 실시간 트래픽이 많은 서비스에서 가급적이면 lock을 걸면 안됨.
      * 실시간 트래픽이 많지 않고, 중요한 돈을 맞추는 이런 경우는 좋을 수도.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE) // 대기 시간은 jakarta.persistence.lock.timeout (application.yml), 호출마다 다르게 하려면 findLockByUsername(username, timeout)
     List<Member> findLockByUsername(String username);
 
     /**
@@ -239,5 +278,32 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
 
+    /**
+     * 비동기 조회 (CompletableFuture)
+     * 서로 관계없는 조회 여러 개를 동시에 날리고 CompletableFuture.allOf 로 기다리면, 응답 시간 = 합이 아니라 제일 느린 쿼리.
+     * repositoryExecutor(AsyncConfig) 스레드에서 돌고, 호출마다 그 스레드에서 읽기 전용 트랜잭션을 따로 엶.
+     * 주의
+     *  -호출한 쪽 트랜잭션, 영속성 컨텍스트와 별개 (아직 커밋 안 한 변경은 안 보임, 반환된 엔티티는 준영속 -> 지연 로딩 X)
+     *  -풀이 꽉 차면 TaskRejectedException (커넥션 풀보다 많이 동시에 돌지 않게 크기를 맞춰 둠)
+     */
+    @Async("repositoryExecutor")
+    @Transactional(readOnly = true)
+    CompletableFuture<List<Member>> findAsyncByUsername(String username);
+
+    @Async("repositoryExecutor")
+    @Transactional(readOnly = true)
+    @Query("select new Study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
+    CompletableFuture<List<MemberDto>> findMemberDtoAsync();
+
+    @Async("repositoryExecutor")
+    @Transactional(readOnly = true)
+    <T> CompletableFuture<List<T>> findAsyncProjectionsByUsername(@Param("username") String username, Class<T> type);
+
+    @Async("repositoryExecutor")
+    @Transactional(readOnly = true)
+    @Query(value = "select m from Member m where m.age = :age",
+            countQuery = "select count(m) from Member m where m.age = :age")
+    CompletableFuture<Page<Member>> findAsyncByAge(@Param("age") int age, Pageable pageable);
+
 }
 
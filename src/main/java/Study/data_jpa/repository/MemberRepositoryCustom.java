@@ -1,10 +1,36 @@
 package Study.data_jpa.repository;
 
 import Study.data_jpa.entity.Member;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface MemberRepositoryCustom {
 
     List<Member> findMemberCustom();
+
+    // username in (...), 중복 제거하고 개수가 많으면 배열 파라미터 하나로 (in 절 길이 제한 없음)
+    List<Member> findByNames(Collection<String> names);
+
+    // 레코드 Projection (RecordProjection), 레코드 컴포넌트에 해당하는 컬럼만 select
+    <R extends Record> List<R> findRecordsByUsername(String username, Class<R> type);
+
+    // 키셋 페이징 (username nulls first, id), 처음은 ScrollPosition.keyset(), 다음은 Window.positionAt(마지막 인덱스)
+    Window<Member> findMemberWindow(ScrollPosition position, int size);
+
+    // 대량 저장: batch_size 단위로 flush + clear (저장한 엔티티는 준영속 상태가 됨)
+    int bulkInsert(Iterable<Member> members);
+
+    // username 단건 조회 (두 번째부터는 캐시에서), 같은 username 이 여러 명이면 IncorrectResultSizeDataAccessException
+    Optional<Member> findCachedByUsername(String username);
+
+    // bulkAgePlus 를 id 범위로 나눠서 짧은 트랜잭션 여러 개로 (ChunkedBulkUpdateExecutor), 실패하면 결과로 이어서 resume
+    BulkUpdateResult bulkAgePlusInChunks(int age);
+
+    // select for update, lockTimeout 안에 락을 못 잡으면 PessimisticLockingFailureException 계열 (0 이면 안 기다림)
+    List<Member> findLockByUsername(String username, Duration lockTimeout);
 }
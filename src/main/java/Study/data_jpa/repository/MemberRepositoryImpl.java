@@ -2,9 +2,24 @@ package Study.data_jpa.repository;
 
 import Study.data_jpa.entity.Member;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * 사용자 정의 리포지토리 구현 (보통 핵심 비즈니스 로직 리포지토리와 화면에 보여주기 위한 리포지토리랑 쪼갬.)
@@ -24,6 +39,11 @@ import java.util.List;
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final EntityManager em;
+    private final MemberUsernameCache usernameCache;
+    private final ChunkedBulkUpdateExecutor bulkUpdateExecutor;
+
+    @Value("${app.query.in-clause-threshold:500}")
+    private int inClauseThreshold;
 
     @Override
     public List<Member> findMemberCustom() {
@@ -31,6 +51,160 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 .getResultList();
     }
 
+    /**
+     * 1. 중복 제거 (같은 이름이 여러 번 와도 바인딩은 한 번)
+     * 2. inClauseThreshold 개 이하: JPQL in 절, hibernate.query.in_clause_parameter_padding 으로 개수를 2의 거듭제곱까지 채워서
+     *    3개, 5개, 7개... 마다 SQL 이 새로 생기지 않음 (쿼리 플랜 캐시, PreparedStatement 캐시 재사용)
+     * 3. 그보다 많으면: username = any(?) 에 배열 하나만 바인딩 -> 개수와 상관없이 SQL 한 가지, 바인딩 파라미터 수 제한도 없음
+     *    (H2, PostgreSQL 처럼 배열 파라미터를 지원하는 DB 기준, 하이버네이트 배치 페치도 같은 방식)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNames(Collection<String> names) {
+        Collection<String> distinct = new LinkedHashSet<>(names);
+        if (distinct.isEmpty()) {
+            return List.of(); // in () 는 DB 에 따라 문법 오류
+        }
+
+        if (distinct.size() <= inClauseThreshold) {
+            return em.createQuery("select m from Member m where m.username in :names", Member.class)
+                    .setParameter("names", distinct)
+                    .getResultList();
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Member> result = em.createNativeQuery("select * from member where username = any(?1)", Member.class)
+                .setParameter(1, distinct.toArray(String[]::new))
+                .getResultList();
+        return result;
+    }
+
+    /**
+     * 인터페이스 Projection(findProjectionsByUsername) 대신 레코드로
+     * 예) findRecordsByUsername("m1", MemberSummaryRecord.class)
+     *  -> select m.id, m.username, team.name from Member m left join m.team team where m.username = :username
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public <R extends Record> List<R> findRecordsByUsername(String username, Class<R> type) {
+        RecordProjection<R> projection = RecordProjection.of(type);
+        List<Tuple> tuples = em.createQuery(projection.query("Member", "m.username = :username"), Tuple.class)
+                .setParameter("username", username)
+                .getResultList();
+        return projection.map(tuples);
+    }
+
+    /**
+     * 키셋(Keyset, Seek) 페이징
+     * offset 페이징은 앞 페이지의 row를 전부 읽고 버리기 때문에 뒤 페이지로 갈수록 느려지고, count 쿼리도 추가로 나감.
+     * 키셋 페이징은 마지막으로 읽은 row의 정렬 키(username, id) 다음부터 읽음. count 쿼리 없음, 1 페이지든 5만 페이지든 같은 비용.
+     * 스프링 데이터 scroll(findBy + Sort) 대신 직접 짠 이유
+     *  -스프링 데이터는 username > ? or (username = ? and id > ?) 로 만드는데, or 로 묶이면 인덱스(username, member_id) 범위 스캔을 못 탐
+     *   -> 앞에 username >= ? 를 중복으로 붙여서 인덱스 시작 위치를 잡아줌 (V3 idx_member_username_id)
+     *  -username 이 null 인 회원: username > null 은 아무것도 안 맞아서 null 에서 스크롤이 끊김
+     *   -> nulls first 로 정렬 (H2 인덱스 기본 순서와 같음), 커서가 null 이면 남은 null(id 큰 것) + null 아닌 전부
+     * team 은 fetch join 으로 같이 가져와서 N + 1 안 생기게 (to-one 이라 limit 걸어도 메모리 페이징 안 됨)
+     * size + 1 개를 읽어서 다음 페이지가 있는지 판단.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Member> findMemberWindow(ScrollPosition position, int size) {
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.scrollsBackward()) {
+            throw new IllegalArgumentException("앞 방향 키셋 위치만 지원: " + position);
+        }
+
+        Map<String, Object> keys = keyset.getKeys();
+        String where = "";
+        if (!keys.isEmpty()) {
+            where = keys.get("username") == null
+                    ? " where (m.username is null and m.id > :id) or m.username is not null"
+                    : " where m.username >= :username and (m.username > :username or m.id > :id)";
+        }
+
+        TypedQuery<Member> query = em.createQuery(
+                "select m from Member m left join fetch m.team" + where + " order by m.username asc nulls first, m.id asc",
+                Member.class);
+        if (!keys.isEmpty()) {
+            query.setParameter("id", keys.get("id"));
+            if (keys.get("username") != null) {
+                query.setParameter("username", keys.get("username"));
+            }
+        }
+
+        List<Member> result = query.setMaxResults(size + 1).getResultList();
+        boolean hasNext = result.size() > size;
+        List<Member> content = hasNext ? result.subList(0, size) : result;
+        return Window.from(content, index -> {
+            Member last = content.get(index);
+            Map<String, Object> next = new LinkedHashMap<>(); // 정렬 순서(username, id) 대로, username 은 null 일 수 있음
+            next.put("username", last.getUsername());
+            next.put("id", last.getId());
+            return ScrollPosition.forward(next);
+        }, hasNext);
+    }
+
+    // 사용자 정의 메서드는 SimpleJpaRepository 의 트랜잭션이 안 걸려서 직접 걸어줘야 함.
+    @Override
+    @Transactional
+    public int bulkInsert(Iterable<Member> members) {
+        return BulkInsertSupport.persistInChunks(em, members);
+    }
+
+    /**
+     * 1. username -> id 캐시에 있으면 em.find (1차 캐시 -> 2차 캐시 -> DB 순서), 그 사이 이름이 바뀌었으면 캐시 버리고 2번으로
+     * 2. 없으면 username 으로 조회해서 딱 한 명일 때만 캐시
+     * 같은 username 이 여러 명이면 캐시하지 않고 스프링 데이터 단건 조회처럼 예외
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Member> findCachedByUsername(String username) {
+        Long cachedId = usernameCache.get(username);
+        if (cachedId != null) {
+            Member member = em.find(Member.class, cachedId);
+            if (member != null && username.equals(member.getUsername())) {
+                return Optional.of(member);
+            }
+            usernameCache.evict(username);
+        }
+
+        List<Member> result = em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .setMaxResults(2) // 두 명 이상인지만 알면 됨
+                .getResultList();
+
+        if (result.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, result.size());
+        }
+        if (result.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Member member = result.get(0);
+        usernameCache.put(username, member.getId());
+        return Optional.of(member);
+    }
+
+    /**
+     * 락 대기 시간을 호출마다 지정 (jakarta.persistence.lock.timeout 힌트, ms)
+     * DB 방언에 따라 for update wait n / nowait / 세션 lock_timeout 으로 바뀜
+     * H2 는 for update 에 대기 시간을 못 붙여서 URL 의 LOCK_TIMEOUT 이 적용됨
+     */
+    @Override
+    @Transactional
+    public List<Member> findLockByUsername(String username, Duration lockTimeout) {
+        return em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", lockTimeout.toMillis())
+                .getResultList();
+    }
 
+    // 범위마다 따로 커밋되니까 여기엔 @Transactional 을 걸면 안 됨
+    @Override
+    public BulkUpdateResult bulkAgePlusInChunks(int age) {
+        return bulkUpdateExecutor.execute(Member.class,
+                "update versioned Member m set m.age = m.age + 1 where m.age >= :age and m.id >= :fromId and m.id < :toId",
+                Map.of("age", age));
+    }
 
 }
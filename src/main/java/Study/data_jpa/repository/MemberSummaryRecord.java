@@ -0,0 +1,8 @@
+package Study.data_jpa.repository;
+
+/**
+ * MemberProjection, NestedClosedProjections 대신
+ * 팀 이름만 left join 으로 가져옴 (팀 엔티티를 통째로 읽지 않음, 팀 없으면 teamName 은 null)
+ */
+public record MemberSummaryRecord(Long id, String username, @ProjectionPath("team.name") String teamName) {
+}
@@ -0,0 +1,44 @@
+package Study.data_jpa.repository;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * username -> member_id 캐시 (자연 키 조회 캐시)
+ * username 은 유니크 제약이 없어서 하이버네이트 @NaturalId 를 쓸 수 없음. (@NaturalId 는 유니크 키를 만들어버림)
+ * 그래서 username 이 한 명한테만 있을 때만 id 를 캐시해 두고, 엔티티는 em.find(id) 로 2차 캐시에서 꺼냄.
+ * 크기, TTL 은 ehcache.xml 의 member.username 리전.
+ */
+@Component
+public class MemberUsernameCache {
+
+    private static final String CACHE_NAME = "member.username";
+
+    private final Cache cache;
+
+    public MemberUsernameCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public Long get(String username) {
+        return username == null ? null : cache.get(username, Long.class);
+    }
+
+    public void put(String username, Long id) {
+        if (username != null) {
+            cache.put(username, id);
+        }
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.evict(username);
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+}
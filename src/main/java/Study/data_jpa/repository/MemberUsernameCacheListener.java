@@ -0,0 +1,98 @@
+package Study.data_jpa.repository;
+
+import Study.data_jpa.entity.Member;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 회원이 저장, 수정, 삭제되면 그 username 캐시를 비움.
+ * 같은 username 회원이 새로 생기면 더 이상 한 명이 아니니까 캐시된 id 를 믿으면 안 됨.
+ * 이름이 바뀐 경우 예전 username 은 여기서 모르지만, 조회할 때 username 을 한 번 더 비교해서 걸러냄.
+ * (하이버네이트가 스프링 빈 컨테이너로 리스너를 만들어서 생성자 주입이 됨)
+ *
+ * @PostXxx 는 커밋 전에 불림 -> 커밋 전까지 다른 트랜잭션은 예전 데이터를 보고 다시 캐시에 넣을 수 있음 (TTL 동안 틀린 값)
+ * 그래서 지금 한 번 (같은 트랜잭션 안의 조회용) + 커밋된 뒤에 한 번 더 비움
+ * 커밋 후 처리는 엔티티마다 synchronization 을 등록하지 않고, 트랜잭션마다 하나(PendingEvictions)에 이름을 모아서 한 번에.
+ *  -bulkInsert 처럼 한 트랜잭션에서 수십만 건을 저장해도 synchronization 목록이 같이 늘어나지 않음
+ *  -이름이 MAX_PENDING 개를 넘으면 더 모으지 않고 커밋 후에 리전을 통째로 비움 (메모리도 일정)
+ */
+@RequiredArgsConstructor
+public class MemberUsernameCacheListener {
+
+    private static final int MAX_PENDING = 1000;
+
+    private final MemberUsernameCache usernameCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Member member) {
+        String username = member.getUsername();
+        usernameCache.evict(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive() && username != null) {
+            pendingEvictions().add(username);
+        }
+    }
+
+    // 트랜잭션 리소스로 묶어 둔 것을 꺼내고, 없으면 (트랜잭션의 첫 변경) 만들어서 synchronization 하나만 등록
+    private PendingEvictions pendingEvictions() {
+        PendingEvictions pending = (PendingEvictions) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvictions();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private class PendingEvictions implements TransactionSynchronization {
+
+        private final Set<String> usernames = new LinkedHashSet<>();
+        private boolean overflow;
+
+        void add(String username) {
+            if (overflow) {
+                return;
+            }
+            usernames.add(username);
+            if (usernames.size() > MAX_PENDING) {
+                overflow = true;
+                usernames.clear();
+            }
+        }
+
+        // REQUIRES_NEW 로 바깥 트랜잭션이 멈추는 동안은 안쪽 트랜잭션이 자기 것을 새로 만들도록 풀어 둠
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(MemberUsernameCacheListener.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(MemberUsernameCacheListener.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            if (overflow) {
+                usernameCache.clear();
+            } else {
+                usernames.forEach(usernameCache::evict);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemberUsernameCacheListener.this);
+        }
+    }
+
+}
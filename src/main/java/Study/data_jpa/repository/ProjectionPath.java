@@ -0,0 +1,18 @@
+package Study.data_jpa.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 레코드 프로젝션 컴포넌트가 가져올 엔티티 경로 (RecordProjection)
+ * 안 붙이면 컴포넌트 이름 그대로 (username -> m.username)
+ * 예) @ProjectionPath("team.name") String teamName -> left join m.team team ... team.name
+ */
+@Target(ElementType.RECORD_COMPONENT)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProjectionPath {
+
+    String value();
+}
@@ -0,0 +1,101 @@
+package Study.data_jpa.repository;
+
+import jakarta.persistence.Tuple;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 레코드 기반 Projection
+ * 인터페이스 Projection 은 row 마다 프록시 + Map(또는 SpEL) 을 만들고, getter 를 부를 때마다 리플렉션으로 값을 찾음.
+ * 레코드는 컴포넌트 순서대로 select 절을 만들어서 Tuple 을 받고, 정식 생성자 MethodHandle 로 바로 생성.
+ *  -select 절: 컴포넌트 이름 = 엔티티 필드 (m.username), @ProjectionPath("team.name") 면 left join m.team team ... team.name
+ *  -레코드 타입마다 select 절, 생성자 핸들은 한 번만 만들어서 ClassValue 에 캐시 (클래스가 언로드되면 같이 사라짐)
+ *  -필요한 컬럼만 select 하니까 Open Projection(@Value) 처럼 엔티티를 통째로 읽지 않음
+ */
+public final class RecordProjection<R extends Record> {
+
+    private static final ClassValue<RecordProjection<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected RecordProjection<?> computeValue(Class<?> type) {
+            return new RecordProjection<>(type.asSubclass(Record.class));
+        }
+    };
+
+    private final Class<R> type;
+    private final MethodHandle constructor; // (Object[])Object
+    private final String selectClause;
+    private final String joinClause;
+
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> RecordProjection<R> of(Class<R> type) {
+        return (RecordProjection<R>) CACHE.get(type);
+    }
+
+    private RecordProjection(Class<R> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+        this.type = type;
+
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        List<String> selections = new ArrayList<>(components.length);
+        Set<String> joins = new LinkedHashSet<>();
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+
+            ProjectionPath path = components[i].getAnnotation(ProjectionPath.class);
+            String attribute = path == null ? components[i].getName() : path.value();
+            int dot = attribute.indexOf('.');
+            if (dot < 0) {
+                selections.add("m." + attribute);
+            } else { // 연관관계는 left join (팀 없는 회원도 나오게), 한 단계까지만
+                String association = attribute.substring(0, dot);
+                joins.add(" left join m." + association + " " + association);
+                selections.add(attribute);
+            }
+        }
+        this.selectClause = String.join(", ", selections);
+        this.joinClause = String.join("", joins);
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class)); // 기본 타입 컴포넌트는 여기서 언박싱
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("no canonical constructor: " + type.getName(), e);
+        }
+    }
+
+    // select m.username, team.name from Member m left join m.team team where ...
+    public String query(String entityName, String where) {
+        return "select " + selectClause + " from " + entityName + " m" + joinClause + " where " + where;
+    }
+
+    public List<R> map(List<Tuple> tuples) {
+        List<R> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            result.add(map(tuple));
+        }
+        return result;
+    }
+
+    public R map(Tuple tuple) {
+        try {
+            return type.cast(constructor.invokeExact(tuple.toArray()));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) { // 레코드 생성자는 체크 예외를 못 던지지만 invokeExact 시그니처상 필요
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
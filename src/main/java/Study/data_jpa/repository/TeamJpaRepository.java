@@ -4,6 +4,7 @@ import Study.data_jpa.entity.Team;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +20,11 @@ public class TeamJpaRepository {
         return team;
     }
 
+    @Transactional
+    public int bulkInsert(Iterable<Team> teams) {
+        return BulkInsertSupport.persistInChunks(em, teams);
+    }
+
     public void delete(Team team) {
         em.remove(team);
     }
@@ -0,0 +1,13 @@
+package Study.data_jpa.repository;
+
+/**
+ * UsernameOnly(Open Projection, @Value SpEL) 대신
+ * username, age 만 select 하고 합치는 건 자바 메서드로
+ */
+public record UsernameAgeRecord(String username, int age) {
+
+    public String display() {
+        return username + " " + age;
+    }
+
+}
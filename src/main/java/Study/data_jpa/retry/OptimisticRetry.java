@@ -0,0 +1,29 @@
+package Study.data_jpa.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌(@Version)이 나면 메서드를 처음부터 다시 실행
+ * @Transactional 메서드에 같이 붙이면 트랜잭션 바깥에서 감싸서, 재시도마다 새 트랜잭션 + 새 영속성 컨텍스트로 다시 읽음.
+ * 재시도 간격은 지수 백오프 + full jitter : random(0, min(maxBackoff, initialBackoff * 2^(n-1)))
+ * 주의
+ *  -이미 트랜잭션 안에서 호출되면 재시도하지 않음 (바깥 트랜잭션은 이미 롤백 전용이라) -> 바깥쪽 메서드에 붙여야 함
+ *  -메서드는 다시 실행해도 괜찮아야 함 (외부 API 호출, 메시지 발행 같은 건 넣지 말 것)
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OptimisticRetry {
+
+    // 첫 실행 포함
+    int maxAttempts() default 5;
+
+    long initialBackoffMillis() default 10;
+
+    long maxBackoffMillis() default 500;
+
+}
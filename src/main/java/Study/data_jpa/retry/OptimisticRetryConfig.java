@@ -0,0 +1,32 @@
+package Study.data_jpa.retry;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * @OptimisticRetry 어드바이저
+ * 트랜잭션 어드바이저(@Transactional, 기본 LOWEST_PRECEDENCE)보다 바깥에서 돌아야 재시도마다 새 트랜잭션이 열림 -> order 를 하나 앞으로
+ * (@EnableTransactionManagement(order = ...) 로 트랜잭션 순서를 바꾸면 여기도 같이 맞춰야 함)
+ * 인프라 역할로 등록해야 AOP starter 가 없어도 트랜잭션용 auto proxy creator 가 같이 적용함
+ */
+@Configuration
+public class OptimisticRetryConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor optimisticRetryAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(AnnotationMatchingPointcut.forMethodAnnotation(OptimisticRetry.class))
+                .union(new AnnotationMatchingPointcut(OptimisticRetry.class, true));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new OptimisticRetryInterceptor());
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+
+}
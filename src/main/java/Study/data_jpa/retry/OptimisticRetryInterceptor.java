@@ -0,0 +1,89 @@
+package Study.data_jpa.retry;
+
+import jakarta.persistence.OptimisticLockException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @OptimisticRetry 처리
+ * OptimisticLockingFailureException (스프링이 변환한 것), OptimisticLockException (커밋 시점에 바로 올라온 것) 둘 다 재시도
+ * 주의: 같은 MethodInvocation 으로 proceed() 를 두 번 부르면 두 번째는 이미 지나간 인터셉터(트랜잭션)를 건너뜀
+ *  -> 매번 invocableClone() 으로 체인을 처음(이 인터셉터 다음)부터 다시 타야 재시도마다 새 트랜잭션이 열림
+ */
+public class OptimisticRetryInterceptor implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryInterceptor.class);
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) { // 바깥 트랜잭션에 참여 중이면 바깥에서 처리
+            return invocation.proceed();
+        }
+
+        OptimisticRetry retry = findAnnotation(invocation);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(invocation);
+            } catch (RuntimeException e) {
+                if (!isOptimisticLockFailure(e) || attempt >= retry.maxAttempts()) {
+                    throw e;
+                }
+                long backoff = backoffMillis(retry, attempt);
+                log.debug("optimistic lock conflict on {} (attempt {}/{}), retrying in {}ms",
+                        invocation.getMethod().getName(), attempt, retry.maxAttempts(), backoff);
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    private static Object attempt(MethodInvocation invocation) throws Throwable {
+        if (invocation instanceof ProxyMethodInvocation proxyInvocation) {
+            return proxyInvocation.invocableClone().proceed();
+        }
+        return invocation.proceed();
+    }
+
+    private static OptimisticRetry findAnnotation(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target != null ? AopUtils.getTargetClass(target) : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        OptimisticRetry retry = AnnotatedElementUtils.findMergedAnnotation(method, OptimisticRetry.class);
+        return retry != null ? retry : AnnotatedElementUtils.findMergedAnnotation(targetClass, OptimisticRetry.class);
+    }
+
+    static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // full jitter: 동시에 충돌한 트랜잭션들이 같은 간격으로 다시 부딪히지 않게
+    static long backoffMillis(OptimisticRetry retry, int attempt) {
+        long cap = Math.min(retry.maxBackoffMillis(), retry.initialBackoffMillis() << Math.min(attempt - 1, 30));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long millis, RuntimeException conflict) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict; // 기다리다 인터럽트 -> 마지막 충돌 예외 그대로
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package Study.data_jpa.service;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.repository.MemberRepository;
+import Study.data_jpa.retry.OptimisticRetry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 같은 회원을 동시에 수정할 때 두 가지 방법
+ * -비관적 락 (select for update) : 먼저 잡은 트랜잭션이 끝날 때까지 나머지는 DB 에서 줄 서서 기다림 (lockTimeout 넘으면 예외)
+ * -낙관적 락 (@Version) : 락 없이 읽고 커밋할 때 버전 비교, 충돌 나면 @OptimisticRetry 가 처음부터 다시
+ * 충돌이 드물면 낙관적 락이 처리량이 좋고, 같은 row 에 몰리면 재시도가 늘어서 비관적 락이 나을 수 있음 (LockContentionBenchmark)
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberService {
+
+    private final MemberRepository memberRepository;
+
+    @OptimisticRetry
+    @Transactional
+    public int increaseAge(String username) {
+        List<Member> members = memberRepository.findByUsername(username);
+        members.forEach(member -> member.setAge(member.getAge() + 1)); // 변경 감지, 커밋할 때 version 비교
+        return members.size();
+    }
+
+    @Transactional
+    public int increaseAgeWithLock(String username, Duration lockTimeout) {
+        List<Member> members = memberRepository.findLockByUsername(username, lockTimeout);
+        members.forEach(member -> member.setAge(member.getAge() + 1));
+        return members.size();
+    }
+
+}
@@ -0,0 +1,73 @@
+package Study.data_jpa.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import net.ttddyy.dsproxy.listener.logging.QueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 샘플링 SQL 로그 (p6spy 대체)
+ * p6spy 는 모든 SQL 을 문자열로 포맷해서 로그를 남겨서, 트래픽이 많으면 포맷팅/로깅에 CPU 를 꽤 씀.
+ * 여기서는 실행 시간만 보고 먼저 거르고, 남길 때만 SQL + 바인딩 파라미터 문자열을 만듦.
+ * 주의: 미뤄지는 건 문자열 포맷팅뿐. 파라미터 수집은 datasource-proxy 가 setXxx 호출마다 항상 함 (값 참조만 리스트에 담음)
+ *  -느린지는 실행이 끝나야 알 수 있고, 느린 SQL 은 파라미터까지 남겨야 해서 (SlowQueryLog 의 EXPLAIN) 수집 자체는 못 건너뜀
+ *  -그 비용까지 없애려면 decorator.datasource.enabled: false (SQL 로그, 느린 SQL 기록도 같이 꺼짐)
+ *
+ * -tracing.sql.slow-threshold 이상 걸린 SQL 은 항상 WARN + SlowQueryLog 에 기록 (/actuator/slowqueries)
+ * -나머지는 tracing.sql.sample-rate 확률로만 INFO (0 이면 안 남김, 1 이면 전부)
+ * -datasource-proxy 자체를 끄려면 decorator.datasource.enabled: false
+ */
+@Component
+public class SampledQueryLoggingListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("sql");
+
+    private final double sampleRate;
+    private final long slowThresholdMillis;
+    private final SlowQueryLog slowQueryLog;
+    private final QueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    public SampledQueryLoggingListener(@Value("${tracing.sql.sample-rate:0}") double sampleRate,
+                                       @Value("${tracing.sql.slow-threshold:1s}") Duration slowThreshold,
+                                       SlowQueryLog slowQueryLog) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (slowQueryLog.isExplaining()) { // SlowQueryLog 가 돌리는 EXPLAIN 은 빼고
+            return;
+        }
+        if (execInfo.getElapsedTime() >= slowThresholdMillis) {
+            log.warn("slow query {}", logEntry(execInfo, queryInfoList));
+            slowQueryLog.record(execInfo, queryInfoList);
+        } else if (sampled() && log.isInfoEnabled()) {
+            log.info("{}", logEntry(execInfo, queryInfoList));
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    // 여기서 처음으로 SQL, 파라미터를 문자열로 만듦 (수집된 파라미터 값은 이미 있음)
+    private String logEntry(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        return logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false, false);
+    }
+
+}
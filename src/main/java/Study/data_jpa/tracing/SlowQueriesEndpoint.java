@@ -0,0 +1,33 @@
+package Study.data_jpa.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * /actuator/slowqueries
+ * 최근 느린 SQL (최신순), SQL, 파라미터, 실행한 리포지토리 메서드, EXPLAIN ANALYZE 결과
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueriesEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return slowQueryLog.entries();
+    }
+
+    // DELETE /actuator/slowqueries : 인덱스 추가 후 다시 보려고 비움
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+
+}
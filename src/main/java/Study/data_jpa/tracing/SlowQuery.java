@@ -0,0 +1,34 @@
+package Study.data_jpa.tracing;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 느린 SQL 한 건
+ * plan 은 EXPLAIN ANALYZE 가 따로 돌고 나서 채워짐 (그 전엔 null)
+ */
+@Getter
+public class SlowQuery {
+
+    private final Instant executedAt;
+    private final long elapsedMillis;
+    private final String repositoryMethod; // 리포지토리 밖에서 날린 SQL 이면 null
+    private final String sql;
+    private final List<Object> params;
+    private volatile String plan;
+
+    public SlowQuery(Instant executedAt, long elapsedMillis, String repositoryMethod, String sql, List<Object> params) {
+        this.executedAt = executedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.repositoryMethod = repositoryMethod;
+        this.sql = sql;
+        this.params = params;
+    }
+
+    void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+}
@@ -0,0 +1,196 @@
+package Study.data_jpa.tracing;
+
+import Study.data_jpa.metrics.RepositoryMetricsInterceptor;
+import jakarta.annotation.PreDestroy;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 느린 SQL 기록 (최근 N건만 들고 있는 링 버퍼) + 실행 계획 자동 수집
+ * 느린 SELECT 는 별도 스레드, 별도 커넥션으로 같은 SQL 과 파라미터로 EXPLAIN ANALYZE 를 돌려서 plan 에 채워 넣음.
+ * (요청 스레드는 기다리지 않음, 밀려 있으면 EXPLAIN 은 버림)
+ * -select ... for update / for share 는 건너뜀: EXPLAIN ANALYZE 는 실제로 실행하니까 원래 트랜잭션이 잡은 행 락을 기다리게 됨
+ * -파라미터는 record() 에서 (요청 스레드, 원래 커넥션이 살아 있을 때) 값으로 복사해 둠. java.sql.Array 는 커넥션이 반납되면 못 읽음
+ * 운영에서 부하를 재현하지 않아도 어떤 쿼리가 인덱스를 못 타는지 /actuator/slowqueries 에서 바로 확인.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    // EXPLAIN 스레드가 날리는 SQL 이 다시 느린 SQL 로 잡혀서 돌고 도는 걸 막음
+    private static final ThreadLocal<Boolean> EXPLAINING = ThreadLocal.withInitial(() -> false);
+    private static final Pattern LOCKING_READ = Pattern.compile("\\bfor\\s+(no\\s+key\\s+)?(update|share|key\\s+share)\\b", Pattern.CASE_INSENSITIVE);
+    static final String LOCKING_READ_SKIPPED = "explain skipped: locking read (for update / for share)";
+
+    private final ObjectProvider<DataSource> dataSource; // DataSource 가 이 빈(리스너)을 먼저 필요로 해서 나중에 꺼냄
+    private final int capacity;
+    private final boolean explainEnabled;
+    private final Deque<SlowQuery> entries;
+    private final ExecutorService explainExecutor;
+
+    public SlowQueryLog(ObjectProvider<DataSource> dataSource,
+                        @Value("${tracing.sql.slow-log-size:100}") int capacity,
+                        @Value("${tracing.sql.explain:true}") boolean explainEnabled) {
+        this.dataSource = dataSource;
+        this.capacity = capacity;
+        this.explainEnabled = explainEnabled;
+        this.entries = new ArrayDeque<>(capacity);
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public boolean isExplaining() {
+        return EXPLAINING.get();
+    }
+
+    public void record(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+            List<Bind> binds = parametersList.isEmpty()
+                    ? List.of() : binds(parametersList.get(0)); // 배치면 첫 번째 파라미터로
+
+            SlowQuery slowQuery = new SlowQuery(Instant.now(), execInfo.getElapsedTime(),
+                    RepositoryMetricsInterceptor.currentMethod(), queryInfo.getQuery(), values(binds));
+            add(slowQuery);
+
+            if (!explainEnabled || !isSelect(queryInfo.getQuery())) { // EXPLAIN ANALYZE 는 실제로 실행하니까 SELECT 만
+                continue;
+            }
+            if (LOCKING_READ.matcher(queryInfo.getQuery()).find()) {
+                slowQuery.setPlan(LOCKING_READ_SKIPPED);
+            } else {
+                explainExecutor.execute(() -> explain(slowQuery, binds));
+            }
+        }
+    }
+
+    // 최신순
+    public List<SlowQuery> entries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private void add(SlowQuery slowQuery) {
+        synchronized (entries) {
+            if (entries.size() == capacity) {
+                entries.removeLast();
+            }
+            entries.addFirst(slowQuery);
+        }
+    }
+
+    private void explain(SlowQuery slowQuery, List<Bind> binds) {
+        EXPLAINING.set(true);
+        try (Connection connection = dataSource.getObject().getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain analyze " + slowQuery.getSql())) {
+            for (Bind bind : binds) {
+                if (bind.nullType() != null) {
+                    statement.setNull(bind.index(), bind.nullType());
+                } else {
+                    statement.setObject(bind.index(), bind.value());
+                }
+            }
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            slowQuery.setPlan(plan.toString());
+        } catch (SQLException | RuntimeException e) {
+            log.debug("explain failed: {}", slowQuery.getSql(), e);
+            slowQuery.setPlan("explain failed: " + e.getMessage());
+        } finally {
+            EXPLAINING.remove();
+        }
+    }
+
+    // setString(1, ...) 같은 순서 기반 파라미터만 (인덱스 순으로 정렬), 값은 여기서 바로 꺼내 둠
+    private static List<Bind> binds(List<ParameterSetOperation> operations) {
+        Map<Integer, Bind> binds = new TreeMap<>();
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            if (args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                binds.put(index, "setNull".equals(operation.getMethod().getName())
+                        ? new Bind(index, null, (Integer) args[1])
+                        : new Bind(index, bindable(args[1]), null));
+            }
+        }
+        return List.copyOf(binds.values());
+    }
+
+    private static List<Object> values(List<Bind> binds) {
+        List<Object> values = new ArrayList<>(binds.size());
+        for (Bind bind : binds) {
+            values.add(bind.value());
+        }
+        return values;
+    }
+
+    // setArray 로 넘어온 java.sql.Array 는 원래 커넥션 것이라 자바 배열로 꺼내서 (batch fetch 의 = any(?) 등)
+    private static Object bindable(Object value) {
+        if (value instanceof Array array) {
+            try {
+                return array.getArray();
+            } catch (SQLException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    private static boolean isSelect(String sql) {
+        String trimmed = sql.stripLeading().toLowerCase();
+        return trimmed.startsWith("select") || trimmed.startsWith("with");
+    }
+
+    // nullType 이 있으면 setNull(index, nullType)
+    private record Bind(int index, Object value, Integer nullType) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+}
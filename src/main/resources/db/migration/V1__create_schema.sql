@@ -0,0 +1,32 @@
+-- 엔티티(Member, Team, Item) 기준 기본 스키마 (ddl-auto: validate 로 엔티티와 맞는지 기동할 때 확인)
+-- 시퀀스 increment 는 @SequenceGenerator allocationSize(100) 와 같아야 함
+
+create sequence member_seq start with 1 increment by 100;
+create sequence team_seq start with 1 increment by 100;
+
+create table team (
+    team_id bigint not null,
+    name varchar(255),
+    version bigint,
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint not null,
+    username varchar(255),
+    age integer not null,
+    team_id bigint,
+    version bigint,
+    created_by varchar(255),
+    created_date timestamp(6),
+    last_modified_by varchar(255),
+    last_modified_date timestamp(6),
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team (team_id)
+);
+
+create table item (
+    id varchar(255) not null,
+    created_date timestamp(6),
+    primary key (id)
+);
@@ -0,0 +1,14 @@
+-- 리포지토리 쿼리 모양에 맞춘 인덱스
+
+-- username = ? (findByUsername*, findByNames, findCachedByUsername, findLockByUsername, MemberSpec.username)
+-- username = ? and age > ? (findByUsernameAndAgeGreaterThan, findUser)
+create index idx_member_username_age on member (username, age);
+
+-- age = ? order by username desc (MemberJpaRepository.findByPage, totalCount), age >= ? (bulkAgePlus)
+create index idx_member_age_username on member (age, username);
+
+-- 회원 -> 팀 조인, team.members 지연 로딩 (where team_id = ? / in (...))
+create index idx_member_team_id on member (team_id);
+
+-- MemberSpec.teamName (join team t where t.name = ?)
+create index idx_team_name on team (name);
@@ -0,0 +1,4 @@
+-- 키셋 페이징 (findMemberWindow): where username >= ? and (username > ? or member_id > ?) order by username nulls first, member_id
+-- (username, age) 인덱스로는 member_id 순서가 안 맞아서 두 번째 페이지부터 전체 스캔 + 정렬이 됨
+-- H2 는 인덱스에서 null 이 먼저 옴, PostgreSQL 이라면 (username nulls first, member_id) 로 만들어야 정렬까지 인덱스로 끝남
+create index idx_member_username_id on member (username, member_id);
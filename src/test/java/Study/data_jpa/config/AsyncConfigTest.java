@@ -0,0 +1,26 @@
+package Study.data_jpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AsyncConfigTest {
+
+    @Autowired
+    ApplicationContext context;
+
+    @Test
+    public void applicationTaskExecutorSurvivesCustomExecutors() {
+        // repositoryExecutor, bulkUpdateExecutor 가 있어도 MVC 비동기, 이름 없는 @Async 용 풀은 그대로
+        ThreadPoolTaskExecutor executor = context.getBean("applicationTaskExecutor", ThreadPoolTaskExecutor.class);
+
+        assertThat(context.getBean("taskExecutor")).isSameAs(executor);
+        assertThat(executor.getThreadNamePrefix()).isEqualTo("task-"); // spring.task.execution.thread-name-prefix 기본값 (자동 설정과 같은 빌더)
+    }
+
+}
@@ -0,0 +1,98 @@
+package Study.data_jpa.config;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.entity.Team;
+import Study.data_jpa.repository.BatchLoader;
+import Study.data_jpa.repository.MemberRepository;
+import Study.data_jpa.repository.TeamRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 요청 스레드 여러 개가 한 배치를 나눠 씀 -> 트랜잭션 없이 커밋된 데이터로
+@SpringBootTest(properties = "batch-loader.window=200ms")
+class BatchLoaderConfigTest {
+
+    @Autowired BatchLoader<Long, Member> memberLoader;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    public void followersUseLazyAssociationOfDetachedMember() throws Exception {
+        Team team = teamRepository.save(new Team("loader-" + UUID.randomUUID()));
+        Member member = memberRepository.save(new Member("loader-member", 10, team));
+
+        int followers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(followers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            // 리더: OSIV 처럼 트랜잭션 없이 요청 스레드에 EntityManager 만 묶여 있는 상태
+            Future<Boolean> leader = executor.submit(() -> {
+                start.await();
+                EntityManager requestEm = emf.createEntityManager();
+                TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(requestEm));
+                try {
+                    return requestEm.contains(memberLoader.load(member.getId()).orElseThrow());
+                } finally {
+                    TransactionSynchronizationManager.unbindResource(emf);
+                    requestEm.close();
+                }
+            });
+
+            // 팔로워: 다른 스레드가 읽은 엔티티의 연관관계를 자기 스레드에서 씀
+            List<Future<String>> teamNames = new ArrayList<>();
+            for (int i = 0; i < followers; i++) {
+                teamNames.add(executor.submit(() -> {
+                    start.await();
+                    return memberLoader.load(member.getId()).orElseThrow().getTeam().getName();
+                }));
+            }
+            start.countDown();
+
+            assertThat(leader.get()).isFalse(); // 리더 요청의 영속성 컨텍스트에 안 붙음
+            for (Future<String> teamName : teamNames) {
+                assertThat(teamName.get()).isEqualTo(team.getName());
+            }
+        } finally {
+            executor.shutdownNow();
+            memberRepository.deleteById(member.getId());
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    @Test
+    public void loadFromSecondLevelCache() {
+        Member member = memberRepository.save(new Member("loader-cache", 10));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        try {
+            memberLoader.load(member.getId()); // 캐시에 없으면 DB -> 캐시
+
+            long hitCount = statistics.getSecondLevelCacheHitCount();
+            long queryCount = statistics.getPrepareStatementCount();
+            assertThat(memberLoader.load(member.getId())).isPresent();
+            assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hitCount);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(queryCount); // DB 안 감
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package Study.data_jpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 허가 1개짜리 필터 앞에서 요청 하나를 컨트롤러 안에 붙잡아 두고, 다음 요청이 어떻게 되는지
+ * DB 는 필요 없어서 컨텍스트 없이 standalone MockMvc 로
+ */
+class JdbcConcurrencyLimitFilterTest {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void excessRequestIsRejectedAfterTimeout() throws Exception {
+        JdbcConcurrencyLimitFilter filter = new JdbcConcurrencyLimitFilter(1, Duration.ofMillis(100));
+        MockMvc mvc = mockMvc(filter);
+
+        Future<?> blocked = executor.submit(() -> mvc.perform(get("/blocking")).andExpect(status().isOk()));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        mvc.perform(get("/ok"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void excessRequestWaitsForPermit() throws Exception {
+        JdbcConcurrencyLimitFilter filter = new JdbcConcurrencyLimitFilter(1, Duration.ofSeconds(5));
+        MockMvc mvc = mockMvc(filter);
+
+        Future<?> blocked = executor.submit(() -> mvc.perform(get("/blocking")).andExpect(status().isOk()));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 두 번째 요청은 큐에서 기다리다가 첫 요청이 끝나면 들어감
+        ExecutorService waiting = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> queued = waiting.submit(() -> mvc.perform(get("/ok")).andExpect(status().isOk()));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (filter.queueLength() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(filter.queueLength()).isEqualTo(1);
+
+            release.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            waiting.shutdownNow();
+        }
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void permitIsReleasedWhenRequestFails() throws Exception {
+        JdbcConcurrencyLimitFilter filter = new JdbcConcurrencyLimitFilter(1, Duration.ofMillis(100));
+        MockMvc mvc = mockMvc(filter);
+
+        assertThatThrownBy(() -> mvc.perform(get("/failing"))).hasRootCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(filter.availablePermits()).isEqualTo(1);
+        mvc.perform(get("/ok")).andExpect(status().isOk());
+    }
+
+    @Test
+    public void permitsFollowConnectionPoolSize() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class))
+                .withUserConfiguration(ConcurrencyLimitConfig.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues("concurrency.limit.enabled=true", "spring.datasource.hikari.maximum-pool-size=1")
+                .run(context -> {
+                    FilterRegistrationBean<?> registration = context.getBean(FilterRegistrationBean.class);
+                    JdbcConcurrencyLimitFilter filter = (JdbcConcurrencyLimitFilter) registration.getFilter();
+
+                    assertThat(filter.availablePermits()).isEqualTo(1);
+                    assertThat(registration.getUrlPatterns()).contains("/members", "/members/*");
+                    assertThat(context.getBean(MeterRegistry.class).get("http.concurrency.limit.available").gauge().value())
+                            .isEqualTo(1.0);
+                });
+    }
+
+    private MockMvc mockMvc(JdbcConcurrencyLimitFilter filter) {
+        return MockMvcBuilders.standaloneSetup(new TestController(entered, release))
+                .addFilters(filter)
+                .build();
+    }
+
+    // @RestController 를 붙이면 다른 @SpringBootTest 컴포넌트 스캔에 걸려서 @ResponseBody 만
+    @ResponseBody
+    static class TestController {
+
+        private final CountDownLatch entered;
+        private final CountDownLatch release;
+
+        TestController(CountDownLatch entered, CountDownLatch release) {
+            this.entered = entered;
+            this.release = release;
+        }
+
+        @GetMapping("/blocking")
+        public String blocking() throws InterruptedException {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "done";
+        }
+
+        @GetMapping("/ok")
+        public String ok() {
+            return "ok";
+        }
+
+        @GetMapping("/failing")
+        public String failing() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package Study.data_jpa.config;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * replica 프로필에서 요청 하나 안에 읽기 -> 쓰기 (JPA + MockMvc, OSIV 인터셉터까지 거침)
+ * 원본, 복제본은 메모리 H2 두 개, 복제본 스키마는 Flyway 로 따로 만들어 둠
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaOpenInViewTest.PRIMARY_URL,
+        "app.datasource.replicas[0].url=" + ReplicaOpenInViewTest.REPLICA_URL,
+        "app.datasource.replicas[0].username=sa",
+        "app.datasource.replicas[0].password=",
+        "app.datasource.replica-lag=0s"})
+@ActiveProfiles("replica")
+@AutoConfigureMockMvc
+class ReplicaOpenInViewTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:osiv_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:osiv_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired MockMvc mockMvc;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Test
+    public void writeAfterReadInSameRequestGoesToPrimary() throws Exception {
+        String username = "osiv-" + UUID.randomUUID();
+
+        mockMvc.perform(post("/test/read-then-write").param("username", username))
+                .andExpect(status().isOk());
+
+        assertThat(count(PRIMARY_URL, username)).isEqualTo(1);
+        assertThat(count(REPLICA_URL, username)).isZero();
+    }
+
+    private static int count(String url, String username) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        return jdbcTemplate.queryForObject("select count(*) from member where username = ?", Integer.class, username);
+    }
+
+    @TestConfiguration
+    @Import(ReadThenWriteController.class)
+    static class Config {
+    }
+
+    @RestController
+    @RequiredArgsConstructor
+    static class ReadThenWriteController {
+
+        private final MemberRepository memberRepository;
+
+        @PostMapping("/test/read-then-write")
+        public Long readThenWrite(@RequestParam("username") String username) {
+            memberRepository.count(); // 읽기 전용 트랜잭션 -> 복제본
+            return memberRepository.save(new Member(username)).getId(); // 쓰기 트랜잭션 -> 원본이어야 함
+        }
+    }
+
+}
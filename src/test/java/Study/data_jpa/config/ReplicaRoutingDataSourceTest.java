@@ -0,0 +1,59 @@
+package Study.data_jpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 메모리 H2 세 개 (원본 1, 복제본 2), 어느 DB 로 갔는지는 select DATABASE() 로 확인
+class ReplicaRoutingDataSourceTest {
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static DataSource routing(String prefix, Duration replicaLag) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(h2(prefix + "_primary"),
+                List.of(h2(prefix + "_replica0"), h2(prefix + "_replica1")), new ReplicaLagGuard(replicaLag));
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static String database(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return tx.execute(status -> jdbcTemplate.queryForObject("select DATABASE()", String.class));
+    }
+
+    @Test
+    public void readOnlyGoesToReplicas() {
+        DataSource dataSource = routing("route", Duration.ZERO);
+
+        List<String> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reads.add(database(dataSource, true).toLowerCase());
+        }
+
+        assertThat(database(dataSource, false)).isEqualToIgnoringCase("route_primary");
+        assertThat(reads).containsExactly("route_replica0", "route_replica1", "route_replica0", "route_replica1"); // round robin
+    }
+
+    @Test
+    public void readYourWritesWithinLag() {
+        DataSource dataSource = routing("lag", Duration.ofMinutes(1));
+
+        assertThat(database(dataSource, true)).isEqualToIgnoringCase("lag_replica0"); // 아직 쓴 적 없음
+        assertThat(database(dataSource, false)).isEqualToIgnoringCase("lag_primary"); // 쓰기 커밋
+        assertThat(database(dataSource, true)).isEqualToIgnoringCase("lag_primary"); // 1분 동안은 원본에서 읽음
+    }
+
+}
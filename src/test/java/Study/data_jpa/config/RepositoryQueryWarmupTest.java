@@ -0,0 +1,53 @@
+package Study.data_jpa.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.named-queries=Member.findByUsername" // Member 엔티티의 @NamedQuery 는 주석 처리돼 있음
+})
+class RepositoryQueryWarmupTest {
+
+    @Autowired
+    RepositoryQueryWarmup warmup;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Test
+    public void warmUpRepositoryQueries() {
+        List<RepositoryQueryWarmup.Result> results = warmup.warmUp();
+        Map<String, RepositoryQueryWarmup.Result> byName = results.stream()
+                .collect(Collectors.toMap(RepositoryQueryWarmup.Result::name, Function.identity(), (a, b) -> a));
+
+        // @Query 는 컴파일만, 파생 쿼리는 한 번씩 돌고
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        assertThat(byName.get("MemberRepository.findUser").error()).isNull();
+        assertThat(byName.get("MemberRepository.findMemberDtoPage").error()).isNull();
+        assertThat(byName.get("MemberRepository.findMemberDto").error()).isNull();
+        assertThat(statistics.getQueryStatistics("select new Study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
+                .getExecutionCount()).isZero(); // 테이블 전체를 읽지 않음
+        assertThat(byName.get("MemberRepository.findByUsernameAndAgeGreaterThan").error()).isNull();
+        assertThat(byName.get("MemberRepository.findByUsernameAndAgeGreaterThan").elapsed()).isNotNull();
+
+        // 쓰기, 락, 비동기, Stream 은 건너뜀
+        assertThat(byName).doesNotContainKeys("MemberRepository.bulkAgePlus", "MemberRepository.findLockByUsername",
+                "MemberRepository.findAsyncByUsername", "MemberRepository.streamMemberDto");
+
+        // 등록 안 된 Named 쿼리 -> 기동할 때 잡힘
+        assertThat(byName.get("@NamedQuery Member.findByUsername").error()).isNotNull();
+    }
+
+}
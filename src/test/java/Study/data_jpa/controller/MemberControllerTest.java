@@ -0,0 +1,134 @@
+package Study.data_jpa.controller;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.entity.Team;
+import Study.data_jpa.repository.MemberRepository;
+import Study.data_jpa.repository.TeamRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+
+    @Test
+    public void scrollSecondPage() throws Exception {
+        String prefix = "scroll-" + UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member(prefix + "-" + i, i));
+        }
+
+        JsonNode first = scroll("/members/scroll?size=3");
+        assertThat(first.get("hasNext").asBoolean()).isTrue();
+        assertThat(first.get("nextCursor").isTextual()).isTrue();
+
+        JsonNode second = scroll("/members/scroll?size=3&cursor=" + first.get("nextCursor").asText());
+
+        // 두 번째 페이지는 첫 페이지 마지막 다음부터 (겹치지 않고 username 순서 유지)
+        List<Long> firstIds = first.get("content").findValues("id").stream().map(JsonNode::asLong).toList();
+        List<Long> secondIds = second.get("content").findValues("id").stream().map(JsonNode::asLong).toList();
+        assertThat(secondIds).isNotEmpty().doesNotContainAnyElementsOf(firstIds);
+        String lastOfFirst = first.get("content").get(firstIds.size() - 1).get("username").asText();
+        assertThat(second.get("content").get(0).get("username").asText()).isGreaterThanOrEqualTo(lastOfFirst);
+    }
+
+    @Test
+    public void invalidCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/members/scroll").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+
+        String notNumber = Base64.getUrlEncoder().withoutPadding().encodeToString("abc:member1".getBytes());
+        mockMvc.perform(get("/members/scroll").param("cursor", notNumber))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void nullUsernameCursor() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", null);
+        keys.put("id", 7L);
+
+        KeysetScrollPosition decoded = (KeysetScrollPosition) ScrollCursor.decode(ScrollCursor.encode(ScrollPosition.forward(keys)));
+
+        assertThat(decoded.getKeys()).containsEntry("username", null).containsEntry("id", 7L);
+    }
+
+    @Test
+    public void exportCsvEscapesFields() throws Exception {
+        Team team = teamRepository.save(new Team("Team, \"A\""));
+        Member quoted = memberRepository.save(new Member("a,b \"c\"", 10, team));
+        Member multiline = memberRepository.save(new Member("line1\nline2", 10, team));
+        Member noTeam = memberRepository.saveAndFlush(new Member("plain-" + UUID.randomUUID(), 10));
+
+        MvcResult result = mockMvc.perform(get("/members/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(result.getResponse().getContentType()).startsWith("text/csv");
+        assertThat(body).startsWith("id,username,teamName\n");
+        // 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 안의 따옴표는 두 번, 팀 없으면 빈 칸
+        assertThat(body).contains(quoted.getId() + ",\"a,b \"\"c\"\"\",\"Team, \"\"A\"\"\"\n");
+        assertThat(body).contains(multiline.getId() + ",\"line1\nline2\",\"Team, \"\"A\"\"\"\n");
+        assertThat(body).contains(noTeam.getId() + "," + noTeam.getUsername() + ",\n");
+    }
+
+    @Test
+    public void exportNdjson() throws Exception {
+        Team team = teamRepository.save(new Team("ndjson-team"));
+        Member withTeam = memberRepository.save(new Member("ndjson-" + UUID.randomUUID(), 10, team));
+        Member noTeam = memberRepository.saveAndFlush(new Member("ndjson-" + UUID.randomUUID(), 10));
+
+        MvcResult result = mockMvc.perform(get("/members/export"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+        assertThat(body).endsWith("\n");
+        Map<Long, JsonNode> byId = new HashMap<>();
+        for (String line : body.split("\n")) { // 한 줄에 JSON 하나
+            JsonNode node = objectMapper.readTree(line);
+            byId.put(node.get("id").asLong(), node);
+        }
+
+        assertThat(byId.get(withTeam.getId()).get("username").asText()).isEqualTo(withTeam.getUsername());
+        assertThat(byId.get(withTeam.getId()).get("teamName").asText()).isEqualTo("ndjson-team");
+        assertThat(byId.get(noTeam.getId()).get("teamName").isNull()).isTrue();
+    }
+
+    private JsonNode scroll(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+}
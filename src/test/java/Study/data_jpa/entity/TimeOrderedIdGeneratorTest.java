@@ -0,0 +1,38 @@
+package Study.data_jpa.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    public void monotonic() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(TimeOrderedIdGenerator.nextId());
+        }
+
+        assertThat(ids).isSorted(); // 같은 밀리초 안에서도 증가
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        assertThat(ids).allMatch(id -> id.matches("[0-9A-HJKMNP-TV-Z]{26}"));
+    }
+
+    @Test
+    public void timeOrdered() throws Exception {
+        String before = TimeOrderedIdGenerator.nextId();
+        Thread.sleep(2);
+
+        String[] other = new String[1];
+        Thread thread = new Thread(() -> other[0] = TimeOrderedIdGenerator.nextId()); // 다른 스레드라도 시간이 지나면 뒤로
+        thread.start();
+        thread.join();
+
+        assertThat(other[0]).isGreaterThan(before);
+    }
+
+}
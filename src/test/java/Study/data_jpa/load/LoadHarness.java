@@ -0,0 +1,188 @@
+package Study.data_jpa.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * 부하 테스트용 HTTP 클라이언트
+ * concurrency 개 스레드가 각자 응답을 받자마자 다음 요청을 보냄 (closed loop)
+ * 보낼 요청은 mix 의 가중치대로 랜덤, 경로의 {id} 는 idSupplier 로 채움
+ * warmup 동안은 기록하지 않고, duration 동안의 처리량 + 지연시간 분포(p50, p99, p999)를 경로별로 모음
+ */
+class LoadHarness {
+
+    private final String baseUrl;
+    private final Map<String, Integer> mix; // "/members/{id}" -> 가중치
+    private final LongSupplier idSupplier;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadHarness(String baseUrl, Map<String, Integer> mix, LongSupplier idSupplier) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.idSupplier = idSupplier;
+    }
+
+    /**
+     * "/members=4,/members/{id}=3,/hello=1" -> 순서 유지 Map
+     */
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] pathAndWeight = entry.trim().split("=");
+            int weight = pathAndWeight.length > 1 ? Integer.parseInt(pathAndWeight[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(pathAndWeight[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load mix is empty: " + mix);
+        }
+        return weights;
+    }
+
+    Map<String, Result> run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        List<Worker> workers = new ArrayList<>(concurrency);
+        List<Thread> threads = new ArrayList<>(concurrency);
+        long recordFrom = System.nanoTime() + warmup.toNanos();
+        long recordUntil = recordFrom + duration.toNanos();
+
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(recordFrom, recordUntil);
+            Thread thread = new Thread(worker, "load-" + i);
+            workers.add(worker);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String path : mix.keySet()) {
+            results.put(path, Result.of(path, duration, workers.stream().map(w -> w.recorders.get(path)).toList()));
+        }
+        results.put("total", Result.of("total", duration, workers.stream().flatMap(w -> w.recorders.values().stream()).toList()));
+        return results;
+    }
+
+    private String pickPath() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int r = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private class Worker implements Runnable {
+
+        private final long recordFrom;
+        private final long recordUntil;
+        private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+
+        Worker(long recordFrom, long recordUntil) {
+            this.recordFrom = recordFrom;
+            this.recordUntil = recordUntil;
+            mix.keySet().forEach(path -> recorders.put(path, new Recorder()));
+        }
+
+        @Override
+        public void run() {
+            long now;
+            while ((now = System.nanoTime()) < recordUntil) {
+                String path = pickPath();
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path.replace("{id}", String.valueOf(idSupplier.getAsLong()))))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+                boolean ok;
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    ok = response.statusCode() < 400;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long end = System.nanoTime();
+                if (now >= recordFrom && end <= recordUntil) { // 워밍업 끝나고, 측정 구간 안에 끝난 요청만
+                    recorders.get(path).record(end - now, ok);
+                }
+            }
+        }
+    }
+
+    // 스레드마다 하나라서 동기화 없음, 끝나고 합침
+    static class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+    }
+
+    /**
+     * 경로 하나의 결과 (지연시간은 ms)
+     */
+    record Result(String path, long requests, long errors, double throughput, double p50, double p99, double p999) {
+
+        static Result of(String path, Duration duration, List<Recorder> recorders) {
+            int size = recorders.stream().mapToInt(r -> r.size).sum();
+            long[] all = new long[size];
+            int offset = 0;
+            long errors = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, all, offset, recorder.size);
+                offset += recorder.size;
+                errors += recorder.errors;
+            }
+            Arrays.sort(all);
+            double seconds = duration.toNanos() / 1_000_000_000.0;
+            return new Result(path, size, errors, size / seconds,
+                    percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s %9d req %6d err %10.1f req/s   p50 %8.2f ms   p99 %8.2f ms   p999 %8.2f ms",
+                    path, requests, errors, throughput, p50, p99, p999);
+        }
+    }
+
+}
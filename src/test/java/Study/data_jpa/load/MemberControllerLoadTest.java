@@ -0,0 +1,154 @@
+package Study.data_jpa.load;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.entity.Team;
+import Study.data_jpa.repository.MemberJpaRepository;
+import Study.data_jpa.repository.TeamJpaRepository;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MemberController 부하 테스트 (./gradlew loadTest, 평소 test 에서는 빠짐)
+ * 랜덤 포트 + 메모리 H2 로 앱을 띄우고 load.members 명을 넣은 뒤 load.concurrency 개 스레드로 요청을 계속 보냄
+ *
+ * 옵션 (-P 로 넘기면 됨, 예: ./gradlew loadTest -Pload.concurrency=64 -Pload.mode=check)
+ * -load.members : 회원 수 (기본 10000)
+ * -load.concurrency : 동시 요청 수 (기본 32)
+ * -load.warmup, load.duration : 워밍업, 측정 시간 (기본 PT5S, PT20S)
+ * -load.mix : 경로=가중치 (기본 /members=4,/members/{id}=3,/members2/{id}=2,/hello=1)
+ * -load.mode : report (출력만), record (baseline 저장), check (baseline 대비 load.threshold 이상 나빠지면 실패)
+ * -load.baseline : baseline 파일 (기본 src/test/resources/load/baseline.properties, 같은 머신에서 record 해서 커밋)
+ * -load.threshold : 허용 오차 (기본 0.2 = 처리량 20% 감소, 지연시간 20% 증가까지)
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+        "decorator.datasource.enabled=false",
+        "logging.level.org.hibernate.SQL=warn"
+})
+class MemberControllerLoadTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    TeamJpaRepository teamJpaRepository;
+
+    @Test
+    public void memberEndpoints() throws Exception {
+        int members = Integer.getInteger("load.members", 10000);
+        int concurrency = Integer.getInteger("load.concurrency", 32);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT20S"));
+        String mix = System.getProperty("load.mix", "/members=4,/members/{id}=3,/members2/{id}=2,/hello=1");
+        String mode = System.getProperty("load.mode", "report");
+        Path baseline = Path.of(System.getProperty("load.baseline", "src/test/resources/load/baseline.properties"));
+        double threshold = Double.parseDouble(System.getProperty("load.threshold", "0.2"));
+
+        List<Long> ids = seed(members);
+        LoadHarness harness = new LoadHarness("http://localhost:" + port, LoadHarness.parseMix(mix),
+                () -> ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+
+        Map<String, LoadHarness.Result> results = harness.run(concurrency, warmup, duration);
+
+        System.out.printf("# members=%d concurrency=%d duration=%s mix=%s%n", members, concurrency, duration, mix);
+        results.values().forEach(System.out::println);
+
+        LoadHarness.Result total = results.get("total");
+        assertThat(total.requests()).isPositive();
+        assertThat(total.errors()).as("errors").isLessThanOrEqualTo(total.requests() / 100); // 에러 1% 이하
+
+        switch (mode) {
+            case "record" -> writeBaseline(baseline, results);
+            case "check" -> checkBaseline(baseline, results, threshold);
+            default -> {
+            }
+        }
+    }
+
+    private List<Long> seed(int members) {
+        List<Team> teams = new ArrayList<>();
+        List<Member> newMembers = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            if (i % 10 == 0) {
+                teams.add(new Team("team" + teams.size()));
+            }
+            newMembers.add(new Member("member" + i, i % 100, teams.get(teams.size() - 1)));
+        }
+        teamJpaRepository.bulkInsert(teams);
+        memberJpaRepository.bulkInsert(newMembers);
+        return newMembers.stream().map(Member::getId).toList();
+    }
+
+    private void writeBaseline(Path baseline, Map<String, LoadHarness.Result> results) throws IOException {
+        Properties properties = new Properties();
+        for (LoadHarness.Result result : results.values()) {
+            properties.setProperty(result.path() + ".throughput", String.valueOf(result.throughput()));
+            properties.setProperty(result.path() + ".p50", String.valueOf(result.p50()));
+            properties.setProperty(result.path() + ".p99", String.valueOf(result.p99()));
+            properties.setProperty(result.path() + ".p999", String.valueOf(result.p999()));
+        }
+        Files.createDirectories(baseline.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(baseline)) {
+            properties.store(writer, "MemberControllerLoadTest baseline (./gradlew loadTest -Pload.mode=record)");
+        }
+        System.out.println("# baseline written: " + baseline.toAbsolutePath());
+    }
+
+    // 같은 옵션으로 record 한 baseline 과 비교 (다른 머신 숫자와 비교하면 의미 없음)
+    private void checkBaseline(Path baseline, Map<String, LoadHarness.Result> results, double threshold) throws IOException {
+        Assumptions.assumeTrue(Files.exists(baseline), "no baseline at " + baseline + " (run with -Pload.mode=record first)");
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(baseline)) {
+            properties.load(reader);
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (LoadHarness.Result result : results.values()) {
+            String path = result.path();
+            if (properties.getProperty(path + ".throughput") == null) { // baseline 이후에 mix 에 추가된 경로
+                continue;
+            }
+            double throughput = Double.parseDouble(properties.getProperty(path + ".throughput"));
+            if (result.throughput() < throughput * (1 - threshold)) {
+                regressions.add(String.format("%s throughput %.1f -> %.1f req/s", path, throughput, result.throughput()));
+            }
+            checkLatency(regressions, properties, path, "p50", result.p50(), threshold);
+            checkLatency(regressions, properties, path, "p99", result.p99(), threshold);
+            checkLatency(regressions, properties, path, "p999", result.p999(), threshold);
+        }
+
+        assertThat(regressions).as("regressions against " + baseline).isEmpty();
+    }
+
+    private void checkLatency(List<String> regressions, Properties properties, String path, String percentile,
+                              double actual, double threshold) {
+        double expected = Double.parseDouble(properties.getProperty(path + "." + percentile));
+        if (actual > expected * (1 + threshold)) {
+            regressions.add(String.format("%s %s %.2f -> %.2f ms", path, percentile, expected, actual));
+        }
+    }
+
+}
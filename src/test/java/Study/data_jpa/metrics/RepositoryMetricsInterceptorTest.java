@@ -0,0 +1,121 @@
+package Study.data_jpa.metrics;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.repository.MemberRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class RepositoryMetricsInterceptorTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired MeterRegistry registry;
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManager em;
+
+    @Test
+    public void overloadsAreSeparateSeries() {
+        long plain = calls("findLockByUsername(String)");
+        long withTimeout = calls("findLockByUsername(String,Duration)");
+
+        memberRepository.findLockByUsername("metrics-" + UUID.randomUUID());
+        memberRepository.findLockByUsername("metrics-" + UUID.randomUUID(), Duration.ofMillis(100));
+        memberRepository.findLockByUsername("metrics-" + UUID.randomUUID(), Duration.ofMillis(100));
+
+        assertThat(calls("findLockByUsername(String)")).isEqualTo(plain + 1);
+        assertThat(calls("findLockByUsername(String,Duration)")).isEqualTo(withTimeout + 2);
+    }
+
+    @Test
+    public void countStatementsRowsAndEntities() {
+        String prefix = "metrics-" + UUID.randomUUID();
+        List<String> names = List.of(prefix + "-1", prefix + "-2", prefix + "-3");
+        names.forEach(name -> memberRepository.save(new Member(name, 10)));
+        em.flush();
+        em.clear(); // 영속성 컨텍스트에 있으면 엔티티 로딩(onLoad)이 안 일어남
+
+        Snapshot before = new Snapshot("findByNames(Collection)");
+        memberRepository.findByNames(names);
+        Snapshot after = new Snapshot("findByNames(Collection)");
+
+        assertThat(after.calls - before.calls).isEqualTo(1);
+        assertThat(after.statements - before.statements).isEqualTo(1);
+        assertThat(after.rows - before.rows).isEqualTo(3);
+        assertThat(after.entities - before.entities).isEqualTo(3);
+    }
+
+    @Test
+    public void queriesEndpoint() throws Exception {
+        memberRepository.findUser("metrics-" + UUID.randomUUID(), 10);
+
+        String body = mockMvc.perform(get("/actuator/queries"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode stats = objectMapper.readTree(body).get("MemberRepository.findUser(String,int) [success]");
+
+        assertThat(stats).isNotNull();
+        assertThat(stats.get("count").asLong()).isPositive();
+        assertThat(stats.get("statementsPerCall").asDouble()).isPositive();
+        assertThat(stats.has("p99Ms")).isTrue();
+    }
+
+    // 지표는 처음 호출될 때 만들어져서 없으면 0
+    private long calls(String method) {
+        Timer timer = registry.find(RepositoryMetricsInterceptor.TIMER_NAME)
+                .tag("repository", "MemberRepository")
+                .tag("method", method)
+                .tag("outcome", "success")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private DistributionSummary summary(String name, String method) {
+        return registry.find(name)
+                .tag("repository", "MemberRepository")
+                .tag("method", method)
+                .summary();
+    }
+
+    private static double total(DistributionSummary summary) {
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    // 지표는 누적이라 호출 전후 차이로
+    private class Snapshot {
+
+        final long calls;
+        final double statements;
+        final double rows;
+        final double entities;
+
+        Snapshot(String method) {
+            DistributionSummary statementSummary = summary("repository.query.statements", method);
+            calls = statementSummary == null ? 0 : statementSummary.count();
+            statements = total(statementSummary);
+            rows = total(summary("repository.query.rows", method));
+            entities = total(summary("repository.query.entities", method));
+        }
+    }
+
+}
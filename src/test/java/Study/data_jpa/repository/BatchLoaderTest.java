@@ -0,0 +1,94 @@
+package Study.data_jpa.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchLoaderTest {
+
+    record Row(Long id) {
+    }
+
+    // 실제 쿼리 대신: 넘어온 id 묶음을 기록하고, 음수 id 는 없는 걸로
+    private final List<Collection<Long>> batches = new CopyOnWriteArrayList<>();
+
+    private List<Row> findAllById(Collection<Long> ids) {
+        batches.add(ids);
+        return ids.stream().filter(id -> id >= 0).map(Row::new).toList();
+    }
+
+    @Test
+    public void coalesceConcurrentLoads() throws Exception {
+        BatchLoader<Long, Row> loader = new BatchLoader<>(this::findAllById, Row::id, Duration.ofMillis(50), 100);
+        int callers = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Optional<Row>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                long id = i % 10; // 같은 id 를 4번씩
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(id);
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < callers; i++) {
+                assertThat(results.get(i).get()).contains(new Row((long) (i % 10)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(batches.size()).isLessThan(callers); // 요청마다 쿼리가 나가지 않음
+        assertThat(batches.stream().mapToInt(Collection::size).sum()).isLessThanOrEqualTo(callers);
+        assertThat(batches).allMatch(batch -> batch.size() == batch.stream().distinct().count()); // 배치 안에서 중복 id 없음
+    }
+
+    @Test
+    public void maxBatchSize() throws Exception {
+        BatchLoader<Long, Row> loader = new BatchLoader<>(this::findAllById, Row::id, Duration.ofMillis(50), 3);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<Optional<Row>>> results = new ArrayList<>();
+            for (long id = 0; id < 10; id++) {
+                long key = id;
+                results.add(executor.submit(() -> loader.load(key)));
+            }
+            for (Future<Optional<Row>> result : results) {
+                assertThat(result.get()).isPresent();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(batches).allMatch(batch -> batch.size() <= 3);
+    }
+
+    @Test
+    public void missingAndFailure() {
+        BatchLoader<Long, Row> loader = new BatchLoader<>(this::findAllById, Row::id, Duration.ofMillis(1), 100);
+        assertThat(loader.load(-1L)).isEmpty();
+
+        BatchLoader<Long, Row> failing = new BatchLoader<>(ids -> {
+            throw new IllegalStateException("db down");
+        }, Row::id, Duration.ofMillis(1), 100);
+        assertThatThrownBy(() -> failing.load(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("db down");
+    }
+
+}
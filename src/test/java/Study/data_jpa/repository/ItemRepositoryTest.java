@@ -5,6 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -20,4 +24,20 @@ class ItemRepositoryTest {
         itemRepository.save(item); // merge()로 넘어가서 db에서 select 날려서 찾아보는데, 없어서 새 거로 insert 쳐서 넣어버림.(비효율)
     }
 
-}
\ No newline at end of file
+    @Test
+    public void upsertAll() {
+        // given
+        String prefix = UUID.randomUUID().toString();
+        List<Item> items = List.of(new Item(prefix + "-1"), new Item(prefix + "-2"), new Item(prefix + "-3"));
+
+        // when
+        int first = itemRepository.upsertAll(items);
+        int second = itemRepository.upsertAll(items); // 같은 걸 다시 보내도 select 없이 건너뜀
+
+        // then
+        assertThat(first).isEqualTo(3);
+        assertThat(second).isEqualTo(0);
+        assertThat(itemRepository.findAllById(List.of(prefix + "-1", prefix + "-2", prefix + "-3"))).hasSize(3);
+    }
+
+}
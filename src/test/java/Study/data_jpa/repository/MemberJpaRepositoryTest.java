@@ -6,9 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,6 +23,12 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    ChunkedBulkUpdateExecutor bulkUpdateExecutor;
+
     @Test
     @Transactional
     @Rollback(value = false)
@@ -118,6 +127,24 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(5);
     }
 
+    @Test
+    @Transactional
+    public void bulkInsert() {
+        // given
+        long before = memberJpaRepository.count();
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            members.add(new Member("bulk" + i, i));
+        }
+
+        // when
+        int savedCount = memberJpaRepository.bulkInsert(members);
+
+        // then
+        assertThat(savedCount).isEqualTo(1000);
+        assertThat(memberJpaRepository.count()).isEqualTo(before + 1000);
+    }
+
     @Test
     @Transactional
     @Rollback(value = false)
@@ -136,4 +163,61 @@ class MemberJpaRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
-}
\ No newline at end of file
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 범위마다 따로 커밋됨
+    public void bulkAgePlusInChunks() {
+        // given
+        int baseAge = 1_000_000; // 다른 테스트 데이터와 안 겹치게
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            members.add(new Member("chunk" + i, baseAge + i % 2)); // 절반은 baseAge, 절반은 baseAge + 1
+        }
+        memberJpaRepository.bulkInsert(members);
+
+        try {
+            // when
+            BulkUpdateResult result = memberJpaRepository.bulkAgePlusInChunks(baseAge + 1);
+
+            // then
+            assertThat(result.isComplete()).isTrue();
+            assertThat(result.getUpdatedRows()).isEqualTo(1250);
+            assertThat(result.getCompletedChunks()).isGreaterThan(1);
+            assertThat(memberJpaRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(baseAge);
+            assertThat(memberJpaRepository.findById(members.get(1).getId()).get().getAge()).isEqualTo(baseAge + 2);
+        } finally {
+            memberRepository.deleteAllByIdInBatch(members.stream().map(Member::getId).toList());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 범위마다 따로 커밋됨
+    public void bulkUpdateListenerFailureDoesNotRequeueCommittedChunks() {
+        // given
+        int baseAge = 2_000_000; // 다른 테스트 데이터와 안 겹치게
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            members.add(new Member("chunk-listener" + i, baseAge));
+        }
+        memberJpaRepository.bulkInsert(members);
+
+        try {
+            // when (범위가 커밋된 뒤 리스너가 매번 터짐)
+            BulkUpdateResult result = bulkUpdateExecutor.execute(Member.class,
+                    "update versioned Member m set m.age = m.age + 1 where m.age >= :age and m.id >= :fromId and m.id < :toId",
+                    Map.of("age", baseAge),
+                    (range, updated, completedChunks, totalChunks, totalUpdated) -> {
+                        throw new IllegalStateException("listener failed");
+                    });
+
+            // then (커밋된 범위는 남은 범위로 안 들어가서 resume 해도 두 번 +1 되지 않음)
+            assertThat(result.isComplete()).isTrue();
+            assertThat(result.getFailure()).isNull();
+            assertThat(result.getUpdatedRows()).isEqualTo(2500);
+            assertThat(bulkUpdateExecutor.resume(result).getUpdatedRows()).isZero();
+            assertThat(memberJpaRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(baseAge + 1);
+        } finally {
+            memberRepository.deleteAllByIdInBatch(members.stream().map(Member::getId).toList());
+        }
+    }
+
+}
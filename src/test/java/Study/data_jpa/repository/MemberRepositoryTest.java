@@ -6,21 +6,37 @@ import Study.data_jpa.entity.Team;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
 import org.hibernate.query.NativeQuery;
+import org.hibernate.stat.Statistics;
 import org.hibernate.transform.Transformers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional(readOnly = true)
@@ -29,6 +45,7 @@ class MemberRepositoryTest {
     @Autowired MemberRepository memberRepository;
     @Autowired TeamRepository teamRepository;
     @PersistenceContext EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
 
     @Test
     @Transactional
@@ -103,6 +120,26 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 커밋돼야 쿼리 캐시에 들어가고 무효화도 됨
+    public void findUsernameListQueryCache() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        memberRepository.findUsernameList(); // DB -> 캐시
+
+        long hitCount = statistics.getQueryCacheHitCount();
+        memberRepository.findUsernameList(); // 캐시
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(hitCount + 1);
+
+        String username = "query-cache-" + UUID.randomUUID();
+        Member member = memberRepository.save(new Member(username, 10)); // member 테이블 변경 -> 캐시된 결과 무효
+
+        try {
+            assertThat(memberRepository.findUsernameList()).contains(username);
+        } finally {
+            memberRepository.deleteById(member.getId()); // 커밋된 데이터라 직접 지움
+        }
+    }
+
     @Test
     @Transactional
     public void findMemberDto() {
@@ -119,6 +156,33 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @Transactional
+    public void findMemberDtoPage() {
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+
+        memberRepository.save(new Member("AAA", 10, team));
+        memberRepository.save(new Member("BBB", 20)); // 팀 없는 회원
+
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(PageRequest.of(0, 2000, Sort.Direction.DESC, "username"));
+
+        assertThat(page.getContent()).extracting(MemberDto::getUsername).contains("AAA", "BBB");
+        assertThat(page.getContent()).filteredOn(dto -> dto.getUsername().equals("BBB"))
+                .extracting(MemberDto::getTeamName).containsOnlyNulls();
+    }
+
+    @Test
+    @Transactional
+    public void streamMemberDto() {
+        memberRepository.save(new Member("stream1", 10));
+        memberRepository.save(new Member("stream2", 20));
+
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            assertThat(stream.map(MemberDto::getUsername)).contains("stream1", "stream2");
+        }
+    }
+
     @Test
     @Transactional
     public void findByNames() {
@@ -133,6 +197,25 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @Transactional
+    public void findByNamesLargeList() {
+        memberRepository.save(new Member("AAA", 10));
+        memberRepository.save(new Member("BBB", 20));
+        memberRepository.save(new Member("CCC", 30));
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) { // in-clause-threshold 보다 많으면 username = any(배열)
+            names.add("none" + i);
+        }
+        names.addAll(List.of("AAA", "BBB", "AAA"));
+
+        assertThat(memberRepository.findByNames(names))
+                .extracting(Member::getUsername)
+                .containsExactlyInAnyOrder("AAA", "BBB");
+        assertThat(memberRepository.findByNames(List.of())).isEmpty();
+    }
+
     @Test
     @Transactional
     public void returnType() {
@@ -147,6 +230,69 @@ class MemberRepositoryTest {
         System.out.println("aaa2 = " + aaa2); // Optional.empty(null 이면)
     }
 
+    @Test
+    @Transactional
+    public void findCachedByUsername() {
+        String username = "cached-" + UUID.randomUUID();
+        Member member = memberRepository.save(new Member(username, 10));
+
+        Optional<Member> first = memberRepository.findCachedByUsername(username); // 쿼리 -> 캐시
+        Optional<Member> second = memberRepository.findCachedByUsername(username); // 캐시 -> em.find
+
+        assertThat(first).contains(member);
+        assertThat(second).contains(member);
+        assertThat(memberRepository.findCachedByUsername("no-" + username)).isEmpty();
+
+        // 같은 이름이 생기면 캐시가 비워지고 단건 조회처럼 예외
+        memberRepository.save(new Member(username, 20));
+        assertThatThrownBy(() -> memberRepository.findCachedByUsername(username))
+                .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 다른 트랜잭션이 커밋 전에 다시 캐시하는 상황이라 실제 커밋 필요
+    public void findCachedByUsernameEvictsAfterCommit() throws Exception {
+        String username = "cached-" + UUID.randomUUID();
+        Member first = memberRepository.save(new Member(username, 10));
+        Member[] duplicate = new Member[1];
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                duplicate[0] = memberRepository.saveAndFlush(new Member(username, 20)); // evict (커밋 전)
+                try { // 커밋 전: 다른 스레드는 아직 한 명만 보고 다시 캐시
+                    assertThat(executor.submit(() -> memberRepository.findCachedByUsername(username)).get()).isPresent();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertThatThrownBy(() -> memberRepository.findCachedByUsername(username)) // 커밋 후 evict 로 다시 비워짐
+                    .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+        } finally {
+            executor.shutdownNow();
+            memberRepository.deleteById(first.getId());
+            if (duplicate[0] != null) {
+                memberRepository.deleteById(duplicate[0].getId());
+            }
+        }
+    }
+
+    @Test
+    @Transactional
+    public void usernameCacheEvictionRegistersOncePerTransaction() {
+        memberRepository.save(new Member("sync0", 10));
+        int registered = TransactionSynchronizationManager.getSynchronizations().size();
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) { // MAX_PENDING 보다 많이
+            members.add(new Member("sync" + i, 10));
+        }
+        memberRepository.bulkInsert(members);
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(registered);
+    }
+
     @Test
     @Transactional
     public void paging() {
@@ -188,6 +334,49 @@ class MemberRepositoryTest {
 //        assertThat(page2.hasNext()).isTrue(); //다음 페이지가 있는가?
     }
 
+    @Test
+    @Transactional
+    public void keysetScroll() {
+        //given
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 10));
+        memberRepository.save(new Member("member3", 10));
+        memberRepository.save(new Member("member4", 10));
+        memberRepository.save(new Member("member5", 10));
+
+        //when
+        Window<Member> first = memberRepository.findMemberWindow(ScrollPosition.keyset(), 3);
+        Window<Member> second = memberRepository.findMemberWindow(first.positionAt(first.size() - 1), 3);
+
+        //then
+        assertThat(first.size()).isEqualTo(3);
+        assertThat(first.hasNext()).isTrue();
+
+        Member last = first.getContent().get(2);
+        Member next = second.getContent().get(0);
+        assertThat(next.getUsername().compareTo(last.getUsername()) > 0
+                || (next.getUsername().equals(last.getUsername()) && next.getId() > last.getId())).isTrue();
+    }
+
+    @Test
+    @Transactional
+    public void keysetScrollPastNullUsername() {
+        //given
+        Member null1 = memberRepository.save(new Member(null, 10));
+        Member null2 = memberRepository.save(new Member(null, 10));
+        memberRepository.save(new Member("member1", 10));
+
+        //when (null 인 회원에서 멈췄던 커서로 이어서)
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", null);
+        keys.put("id", null1.getId());
+        Window<Member> next = memberRepository.findMemberWindow(ScrollPosition.forward(keys), 2);
+
+        //then (남은 null 다음에 null 아닌 회원으로 넘어감)
+        assertThat(next.getContent().get(0).getId()).isEqualTo(null2.getId());
+        assertThat(next.getContent().get(1).getUsername()).isNotNull();
+    }
+
     @Test
     @Transactional
     @Rollback(value = false)
@@ -246,6 +435,49 @@ class MemberRepositoryTest {
         }
     }
 
+    /**
+     * 배치 페치 (@BatchSize, default_batch_fetch_size)
+     * 팀 1000개를 돌면서 team.getMembers() 를 건드리면 원래는 1 + 1000 번 쿼리가 나가지만,
+     * 100개씩 묶어서 가져오니까 팀 조회 1번 + members 조회 10번 = 11번.
+     * H2 는 배열 파라미터를 지원해서 하이버네이트가 in (?, ?, ...) 대신 = any(?) 하나로 보냄 -> 몇 개를 묶든 SQL 모양이 하나.
+     */
+    @Test
+    @Transactional
+    public void batchFetchTeamMembers() {
+        // given
+        String prefix = "batch-" + UUID.randomUUID() + "-";
+        for (int i = 0; i < 1000; i++) {
+            Team team = new Team(prefix + i);
+            em.persist(team);
+            em.persist(new Member("member" + i, i, team));
+            em.persist(new Member("member" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+
+        SessionFactory sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions(); // 2차 캐시 말고 DB 에서 가져오는 쿼리 수만 세기
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        // when
+        List<Team> teams = em.createQuery("select t from Team t where t.name like :prefix", Team.class)
+                .setParameter("prefix", prefix + "%")
+                .getResultList();
+        int memberCount = 0;
+        for (Team team : teams) {
+            for (Member member : team.getMembers()) {
+                assertThat(member.getTeam()).isSameAs(team); // 이미 영속성 컨텍스트에 있는 팀이라 쿼리 X
+                memberCount++;
+            }
+        }
+
+        // then
+        assertThat(teams).hasSize(1000);
+        assertThat(memberCount).isEqualTo(2000);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + 10);
+    }
+
     @Test
     @Transactional
     @Rollback(value = false)
@@ -398,6 +630,24 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @Transactional
+    public void recordProjections() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("record1", 10, teamA));
+        em.persist(new Member("record1", 20)); // 팀 없는 회원
+        em.flush();
+        em.clear();
+
+        List<UsernameAgeRecord> usernames = memberRepository.findRecordsByUsername("record1", UsernameAgeRecord.class);
+        assertThat(usernames).extracting(UsernameAgeRecord::display).containsExactlyInAnyOrder("record1 10", "record1 20");
+
+        List<MemberSummaryRecord> summaries = memberRepository.findRecordsByUsername("record1", MemberSummaryRecord.class);
+        assertThat(summaries).extracting(MemberSummaryRecord::teamName).containsExactlyInAnyOrder("teamA", null);
+        assertThat(summaries).extracting(MemberSummaryRecord::id).doesNotContainNull();
+    }
+
     @Test
     public void nativeQuery() {
         // given
@@ -441,5 +691,31 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 비동기 조회는 다른 스레드, 다른 트랜잭션이라 커밋된 데이터만 보임
+    public void asyncFinders() {
+        Team team = teamRepository.save(new Team("async-team"));
+        String username = "async-" + UUID.randomUUID();
+        List<Member> members = memberRepository.saveAll(List.of(
+                new Member(username, 71, team),
+                new Member(username, 71, team)));
+        try {
+            // 네 개를 동시에 날리고 한 번에 기다림
+            CompletableFuture<List<Member>> byUsername = memberRepository.findAsyncByUsername(username);
+            CompletableFuture<List<MemberDto>> dtos = memberRepository.findMemberDtoAsync();
+            CompletableFuture<List<UsernameOnlyDto>> projections = memberRepository.findAsyncProjectionsByUsername(username, UsernameOnlyDto.class);
+            CompletableFuture<Page<Member>> byAge = memberRepository.findAsyncByAge(71, PageRequest.of(0, 1, Sort.by("id")));
+            CompletableFuture.allOf(byUsername, dtos, projections, byAge).join();
+
+            assertThat(byUsername.join()).hasSize(2);
+            assertThat(dtos.join()).extracting(MemberDto::getUsername).contains(username);
+            assertThat(projections.join()).extracting(UsernameOnlyDto::getUsername).containsOnly(username);
+            assertThat(byAge.join().getContent()).hasSize(1);
+            assertThat(byAge.join().getTotalElements()).isGreaterThanOrEqualTo(2);
+        } finally {
+            memberRepository.deleteAll(members);
+            teamRepository.delete(team);
+        }
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,234 @@
+package Study.data_jpa.repository;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.entity.Team;
+import Study.data_jpa.tracing.SlowQuery;
+import Study.data_jpa.tracing.SlowQueryLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 리포지토리 쿼리마다 (인터페이스 메서드를 전부 찾아서) EXPLAIN 해서 인덱스를 타는지 확인 (db/migration 인덱스가 쿼리 모양과 맞는지)
+ * slow-threshold 0 으로 SlowQueryLog 에 모든 SQL + 파라미터를 모은 뒤, where 절이 있는 SQL 을 같은 파라미터로 EXPLAIN.
+ * FULL_SCAN_THRESHOLD 행 이상인 테이블을 tableScan 하면 실패. (where 없는 findAll 같은 건 원래 전체를 읽으니까 제외)
+ * 키셋 페이징은 첫 페이지(where 없음)만으로는 확인이 안 돼서 뒤 페이지(username >= ? and (...))도 따로 호출
+ */
+@SpringBootTest(properties = {
+        "tracing.sql.slow-threshold=0ms",
+        "tracing.sql.explain=false", // EXPLAIN 은 여기서 직접 (비동기 X)
+        "tracing.sql.slow-log-size=10000",
+        "logging.level.sql=error"
+})
+class QueryPlanTest {
+
+    private static final int FULL_SCAN_THRESHOLD = 100;
+    private static final String USERNAME = "plan42";
+    private static final int AGE = 42;
+    // 쿼리 모양이 아니라 쓰기 위주라서 제외: insert 만 (bulkInsert, upsertAll), 범위마다 따로 커밋 (bulkAgePlusInChunks, 안의 JPQL 은 bulkAgePlus 와 같음)
+    private static final Set<String> SKIPPED = Set.of("bulkInsert", "upsertAll", "bulkAgePlusInChunks");
+    private static final Pattern TABLE_SCAN = Pattern.compile("(\\w+)\"?\\.tableScan");
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired TeamJpaRepository teamJpaRepository;
+    @Autowired SlowQueryLog slowQueryLog;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired ApplicationContext applicationContext;
+
+    @Test
+    public void repositoryQueriesUseIndexes() {
+        List<Team> teams = new ArrayList<>();
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (i % 10 == 0) {
+                teams.add(new Team("planTeam" + teams.size()));
+            }
+            members.add(new Member("plan" + i, i % 100, teams.get(teams.size() - 1)));
+        }
+        teamJpaRepository.bulkInsert(teams);
+        memberJpaRepository.bulkInsert(members);
+        jdbcTemplate.execute("analyze"); // 선택도 통계 갱신 (옵티마이저가 인덱스를 고를 근거)
+
+        try {
+            slowQueryLog.clear();
+            runRepositoryQueries(teams.get(7).getId());
+
+            List<String> violations = new ArrayList<>();
+            for (SlowQuery query : slowQueryLog.entries()) {
+                if (!hasWhere(query.getSql())) {
+                    continue;
+                }
+                String plan = explain(query);
+                for (String table : scannedTables(plan)) {
+                    long rows = jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+                    if (rows >= FULL_SCAN_THRESHOLD) {
+                        violations.add(table + " (" + rows + " rows) <- " + query.getRepositoryMethod() + "\n" + plan);
+                    }
+                }
+            }
+
+            assertThat(violations).as("full table scans").isEmpty();
+        } finally {
+            memberRepository.deleteAllByIdInBatch(members.stream().map(Member::getId).toList());
+            teamRepository.deleteAllByIdInBatch(teams.stream().map(Team::getId).toList());
+        }
+    }
+
+    /**
+     * 리포지토리 인터페이스의 메서드를 전부 (파생 쿼리, @Query, 사용자 정의, default) 자동으로 찾아서 한 번씩 호출
+     * JpaRepository 같은 스프링 데이터 기본 메서드는 제외 (findById 같은 건 PK), 예외는 SKIPPED 만
+     * 메서드마다 롤백되는 트랜잭션 안에서 (벌크 update, 락도 있어서)
+     */
+    private void runRepositoryQueries(Long teamId) {
+        List<String> invoked = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : information.getRepositoryInterface().getMethods()) {
+                if (!isRepositoryQuery(method)) {
+                    continue;
+                }
+                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                try {
+                    inRollback(() -> consume(ReflectionUtils.invokeMethod(method, repository, arguments(method))));
+                    invoked.add(name);
+                } catch (RuntimeException e) {
+                    failed.add(name + ": " + e);
+                }
+            }
+        }
+        assertThat(failed).as("repository queries that failed to run").isEmpty();
+        assertThat(invoked).contains("MemberRepository.findUser", "MemberRepository.findByNames", "MemberRepository.findMemberWindow");
+
+        // 리포지토리 메서드가 아닌 쿼리: Specification, 순수 JPA 리포지토리, 지연 로딩
+        inRollback(() -> {
+            memberRepository.findAll(MemberSpec.username(USERNAME));
+            memberRepository.findAll(MemberSpec.teamName("planTeam7"));
+            memberJpaRepository.findByUsernameAndAgeGreaterThan(USERNAME, 10);
+            memberJpaRepository.findByPage(AGE, 0, 10);
+            memberJpaRepository.totalCount(AGE);
+            memberJpaRepository.bulkAgePlus(95);
+            teamRepository.findById(teamId).ifPresent(team -> team.getMembers().size()); // where team_id = ?
+            memberRepository.findMemberWindow(ScrollPosition.forward(Map.of("username", "plan1990", "id", 0L)), 10); // 뒤 페이지
+        });
+    }
+
+    private static boolean isRepositoryQuery(Method method) {
+        return !method.getDeclaringClass().getPackageName().startsWith("org.springframework.data")
+                && !Modifier.isStatic(method.getModifiers())
+                && !method.isBridge()
+                && !AnnotatedElementUtils.hasAnnotation(method, Async.class) // 다른 스레드라 SQL 에 메서드 이름이 안 붙음, 같은 쿼리의 동기 버전이 있음
+                && !SKIPPED.contains(method.getName());
+    }
+
+    // 쿼리가 실제로 나가도록 결과를 소비
+    private static void consume(Object result) {
+        if (result instanceof Stream<?> stream) {
+            try (stream) {
+                stream.forEach(row -> {
+                });
+            }
+        }
+    }
+
+    private void inRollback(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            action.run();
+        });
+    }
+
+    // 타입으로 인자를 정함 (plan 데이터에 실제로 있는 값)
+    private static Object[] arguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            args[i] = argument(types[i], genericTypes[i], method);
+        }
+        return args;
+    }
+
+    private static Object argument(Class<?> type, Type genericType, Method method) {
+        if (type == String.class) {
+            return USERNAME;
+        }
+        if (type == int.class || type == Integer.class) {
+            return AGE;
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (type == ScrollPosition.class) {
+            return ScrollPosition.keyset();
+        }
+        if (type == Duration.class) {
+            return Duration.ofSeconds(1);
+        }
+        if (type == Class.class) { // 동적 Projection, <R extends Record> 면 레코드로
+            return genericType instanceof ParameterizedType parameterized
+                    && parameterized.getActualTypeArguments()[0] instanceof TypeVariable<?> variable
+                    && variable.getBounds()[0] == Record.class ? MemberSummaryRecord.class : UsernameOnlyDto.class;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of("plan1", "plan2", "plan3");
+        }
+        throw new IllegalArgumentException("no sample argument for " + type.getName() + " in " + method);
+    }
+
+    private String explain(SlowQuery query) {
+        List<String> rows = jdbcTemplate.queryForList("explain " + query.getSql(), String.class, query.getParams().toArray());
+        return String.join("\n", rows);
+    }
+
+    private static boolean hasWhere(String sql) {
+        String lower = sql.toLowerCase();
+        return (lower.startsWith("select") || lower.startsWith("update") || lower.startsWith("delete"))
+                && lower.contains(" where ");
+    }
+
+    private static Set<String> scannedTables(String plan) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_SCAN.matcher(plan);
+        while (matcher.find()) {
+            tables.add(matcher.group(1));
+        }
+        return tables;
+    }
+
+}
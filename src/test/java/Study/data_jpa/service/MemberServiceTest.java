@@ -0,0 +1,151 @@
+package Study.data_jpa.service;
+
+import Study.data_jpa.entity.Member;
+import Study.data_jpa.repository.MemberRepository;
+import Study.data_jpa.retry.OptimisticRetry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 트랜잭션 없이 (여러 스레드가 각자 커밋해야 충돌이 남)
+@SpringBootTest
+class MemberServiceTest {
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired ConflictingAgeUpdater conflictingAgeUpdater;
+
+    @Test
+    public void optimisticRetry() throws Exception {
+        Member member = memberRepository.save(new Member("optimistic-" + UUID.randomUUID(), 0));
+        AtomicInteger succeeded = new AtomicInteger();
+
+        try {
+            runConcurrently(8, 5, () -> {
+                try {
+                    memberService.increaseAge(member.getUsername());
+                    succeeded.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) { // 재시도를 다 써도 충돌하면 실패 (업데이트는 안 됨)
+                }
+                return null;
+            });
+
+            Member found = memberRepository.findById(member.getId()).get();
+            assertThat(succeeded.get()).isPositive();
+            assertThat(found.getAge()).isEqualTo(succeeded.get()); // 잃어버린 업데이트 없음
+            assertThat(found.getVersion()).isEqualTo(succeeded.get());
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    public void pessimisticLock() throws Exception {
+        Member member = memberRepository.save(new Member("pessimistic-" + UUID.randomUUID(), 0));
+
+        try {
+            runConcurrently(4, 5, () -> memberService.increaseAgeWithLock(member.getUsername(), Duration.ofSeconds(10)));
+
+            assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(20); // 줄 서서 전부 성공
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    // 첫 시도에서 반드시 충돌 -> 두 번째 시도가 새 트랜잭션에서 다시 읽고 반영돼야 함 (업데이트가 조용히 사라지면 안 됨)
+    @Test
+    public void retryRunsInNewTransaction() {
+        Member member = memberRepository.save(new Member("conflict-" + UUID.randomUUID(), 0));
+
+        try {
+            conflictingAgeUpdater.increaseAge(member.getId());
+
+            Member found = memberRepository.findById(member.getId()).get();
+            assertThat(conflictingAgeUpdater.attempts.get()).isEqualTo(2);
+            assertThat(found.getAge()).isEqualTo(101); // 다른 트랜잭션의 +100 위에 +1
+            assertThat(found.getVersion()).isEqualTo(2);
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        ConflictingAgeUpdater conflictingAgeUpdater(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+            return new ConflictingAgeUpdater(memberRepository, transactionManager);
+        }
+    }
+
+    // 첫 시도: 읽은 뒤 다른 트랜잭션(REQUIRES_NEW)이 먼저 +100 커밋 -> 내 커밋은 version 이 달라서 충돌
+    static class ConflictingAgeUpdater {
+
+        final AtomicInteger attempts = new AtomicInteger();
+        private final MemberRepository memberRepository;
+        private final TransactionTemplate otherTransaction;
+
+        ConflictingAgeUpdater(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+            this.memberRepository = memberRepository;
+            this.otherTransaction = new TransactionTemplate(transactionManager);
+            this.otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        @OptimisticRetry
+        @Transactional
+        public void increaseAge(Long id) {
+            Member member = memberRepository.findById(id).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                otherTransaction.executeWithoutResult(status -> {
+                    Member other = memberRepository.findById(id).orElseThrow();
+                    other.setAge(other.getAge() + 100);
+                });
+            }
+            member.setAge(member.getAge() + 1);
+        }
+    }
+
+    private static void runConcurrently(int threads, int callsPerThread, Callable<?> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < callsPerThread; j++) {
+                        call.call();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package Study.data_jpa.tracing;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.StatementType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * "sql" 로거에 ListAppender 를 붙여서 실제로 남은 로그를 셈 (EXPLAIN 은 꺼서 DB 없이)
+ */
+class SampledQueryLoggingListenerTest {
+
+    private final Logger sqlLogger = (Logger) LoggerFactory.getLogger("sql");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level originalLevel;
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        originalLevel = sqlLogger.getLevel();
+        sqlLogger.setLevel(Level.INFO);
+        appender.start();
+        sqlLogger.addAppender(appender);
+        slowQueryLog = new SlowQueryLog(new DefaultListableBeanFactory().getBeanProvider(DataSource.class), 10, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlLogger.detachAppender(appender);
+        sqlLogger.setLevel(originalLevel);
+        slowQueryLog.shutdown();
+    }
+
+    @Test
+    public void rateZeroLogsNothing() {
+        SampledQueryLoggingListener listener = listener(0);
+
+        for (int i = 0; i < 100; i++) {
+            listener.afterQuery(execution(5), queries());
+        }
+
+        assertThat(appender.list).isEmpty();
+        assertThat(slowQueryLog.entries()).isEmpty();
+    }
+
+    @Test
+    public void rateOneLogsEveryQuery() {
+        SampledQueryLoggingListener listener = listener(1);
+
+        for (int i = 0; i < 100; i++) {
+            listener.afterQuery(execution(5), queries());
+        }
+
+        assertThat(appender.list).hasSize(100).allMatch(event -> event.getLevel() == Level.INFO);
+        assertThat(appender.list.get(0).getFormattedMessage()).contains("select * from member where username = ?");
+        assertThat(slowQueryLog.entries()).isEmpty(); // 느린 SQL 만 기록
+    }
+
+    @Test
+    public void slowQueryIsAlwaysLogged() {
+        SampledQueryLoggingListener listener = listener(0);
+
+        listener.afterQuery(execution(100), queries()); // threshold 와 같아도 느린 SQL
+        listener.afterQuery(execution(99), queries());
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getLevel()).isEqualTo(Level.WARN);
+        assertThat(appender.list.get(0).getFormattedMessage()).startsWith("slow query");
+        assertThat(slowQueryLog.entries()).extracting(SlowQuery::getElapsedMillis).containsExactly(100L);
+    }
+
+    private SampledQueryLoggingListener listener(double sampleRate) {
+        return new SampledQueryLoggingListener(sampleRate, Duration.ofMillis(100), slowQueryLog);
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsedMillis);
+        execInfo.setStatementType(StatementType.PREPARED);
+        execInfo.setSuccess(true);
+        return execInfo;
+    }
+
+    private static List<QueryInfo> queries() {
+        return List.of(new QueryInfo("select * from member where username = ?"));
+    }
+
+}
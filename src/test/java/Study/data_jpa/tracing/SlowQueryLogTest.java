@@ -0,0 +1,124 @@
+package Study.data_jpa.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 리스너(datasource-proxy)가 넘겨주는 ExecutionInfo, QueryInfo 를 직접 만들어서 record -> explain
+ * 스프링 컨텍스트 없이 H2 메모리 DB 하나로
+ */
+class SlowQueryLogTest {
+
+    private DataSource dataSource;
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:slow-query-log;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists member (member_id bigint primary key, username varchar(255))");
+        jdbcTemplate.execute("merge into member key (member_id) values (1, 'slow1')");
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("dataSource", dataSource);
+        slowQueryLog = new SlowQueryLog(beanFactory.getBeanProvider(DataSource.class), 2, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.shutdown();
+    }
+
+    @Test
+    public void recordKeepsLatestEntries() throws Exception {
+        slowQueryLog.record(execution(10), List.of(query("update member set username = ? where member_id = ?",
+                setString(1, "a"), setNull(2, Types.BIGINT))));
+        slowQueryLog.record(execution(20), List.of(query("update member set username = ? where member_id = ?",
+                setString(1, "b"), setNull(2, Types.BIGINT))));
+        slowQueryLog.record(execution(30), List.of(query("update member set username = ? where member_id = ?",
+                setString(1, "c"), setNull(2, Types.BIGINT))));
+
+        List<SlowQuery> entries = slowQueryLog.entries();
+        assertThat(entries).extracting(SlowQuery::getElapsedMillis).containsExactly(30L, 20L); // 최신순, 용량 2
+        assertThat(entries.get(0).getParams()).containsExactly("c", null);
+        assertThat(entries.get(0).getPlan()).isNull(); // update 는 EXPLAIN ANALYZE 안 함
+    }
+
+    @Test
+    public void explainWithArrayParameterAfterConnectionIsClosed() throws Exception {
+        String sql = "select * from member where username = any(?)";
+        try (Connection connection = dataSource.getConnection()) {
+            Array names = connection.createArrayOf("VARCHAR", new Object[]{"slow1", "slow2"});
+            slowQueryLog.record(execution(100), List.of(query(sql, setArray(1, names))));
+        } // 원래 커넥션이 닫힌 뒤에 EXPLAIN 스레드가 돌아도 값은 이미 복사돼 있음
+
+        SlowQuery slowQuery = slowQueryLog.entries().get(0);
+        assertThat(slowQuery.getParams().get(0)).isInstanceOf(Object[].class);
+
+        String plan = awaitPlan(slowQuery);
+        assertThat(plan).doesNotStartWith("explain failed").containsIgnoringCase("member");
+    }
+
+    @Test
+    public void lockingReadIsNotExplained() throws Exception {
+        slowQueryLog.record(execution(100), List.of(query("select * from member where member_id = ? for update",
+                setString(1, "1"))));
+
+        // EXPLAIN ANALYZE 로 다시 실행하면 원래 트랜잭션의 행 락을 기다림 -> 아예 안 돌림
+        assertThat(slowQueryLog.entries().get(0).getPlan()).isEqualTo(SlowQueryLog.LOCKING_READ_SKIPPED);
+    }
+
+    private static String awaitPlan(SlowQuery slowQuery) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (slowQuery.getPlan() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(slowQuery.getPlan()).as("plan").isNotNull();
+        return slowQuery.getPlan();
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsedMillis);
+        return execInfo;
+    }
+
+    private static QueryInfo query(String sql, ParameterSetOperation... params) {
+        QueryInfo queryInfo = new QueryInfo(sql);
+        queryInfo.getParametersList().add(List.of(params));
+        return queryInfo;
+    }
+
+    private static ParameterSetOperation setString(int index, String value) throws NoSuchMethodException {
+        return new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+                new Object[]{index, value});
+    }
+
+    private static ParameterSetOperation setNull(int index, int sqlType) throws NoSuchMethodException {
+        return new ParameterSetOperation(PreparedStatement.class.getMethod("setNull", int.class, int.class),
+                new Object[]{index, sqlType});
+    }
+
+    private static ParameterSetOperation setArray(int index, Array value) throws NoSuchMethodException {
+        return new ParameterSetOperation(PreparedStatement.class.getMethod("setArray", int.class, Array.class),
+                new Object[]{index, value});
+    }
+
+}